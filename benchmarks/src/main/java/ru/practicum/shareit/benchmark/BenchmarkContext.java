@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Утилитный класс для запуска контекста сервера без веб-слоя поверх встроенной базы H2 (профиль test).
+ * Каждый запуск получает собственную базу в памяти, логирование транзакций приглушается,
+ * чтобы не искажать измерения.
+ */
+
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.orm.jpa=WARN",
+                "logging.level.org.springframework.transaction=WARN",
+                "logging.level.org.springframework.transaction.interceptor=WARN",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+        ));
+        allProperties.addAll(List.of(properties));
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(allProperties.toArray(String[]::new))
+                .run();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный тест запущенного шлюза (shareIt Gateway) с замкнутой моделью нагрузки:
+ * заданное число клиентов непрерывно отправляет запросы GET /items/{id} и GET /items,
+ * по окончании выводятся пропускная способность и перцентили задержки.
+ * Используется для сравнения шлюза с spring.threads.virtual.enabled=false и true при одинаковой нагрузке.
+ * Параметры задаются системными свойствами: gateway.url, load.concurrency, load.warmup, load.duration (секунды).
+ */
+
+public final class GatewayLoadTest {
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private GatewayLoadTest() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String gatewayUrl = System.getProperty("gateway.url", "http://localhost:8080");
+        int concurrency = Integer.getInteger("load.concurrency", 400);
+        int warmupSeconds = Integer.getInteger("load.warmup", 10);
+        int durationSeconds = Integer.getInteger("load.duration", 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String suffix = String.valueOf(System.nanoTime());
+        long userId = createAndGetId(client, gatewayUrl + "/users", null,
+                "{\"name\":\"load\",\"email\":\"load" + suffix + "@shareit.benchmark\"}");
+        long itemId = createAndGetId(client, gatewayUrl + "/items", userId,
+                "{\"name\":\"load item " + suffix + "\",\"description\":\"load\",\"available\":true}");
+        List<HttpRequest> requests = List.of(
+                get(gatewayUrl + "/items/" + itemId, userId),
+                get(gatewayUrl + "/items", userId));
+
+        run(client, requests, concurrency, warmupSeconds);
+        long[] latencies = run(client, requests, concurrency, durationSeconds);
+
+        Arrays.sort(latencies);
+        System.out.printf("concurrency=%d duration=%ds requests=%d%n", concurrency, durationSeconds, latencies.length);
+        System.out.printf("throughput=%.1f req/s%n", (double) latencies.length / durationSeconds);
+        System.out.printf("p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static long[] run(HttpClient client, List<HttpRequest> requests, int concurrency, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int offset = i;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.get((offset + count) % requests.size());
+                        long start = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        long latency = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = latency;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        List<long[]> results = new ArrayList<>(concurrency);
+        int total = 0;
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            results.add(latencies);
+            total += latencies.length;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] latencies : results) {
+            System.arraycopy(latencies, 0, all, position, latencies.length);
+            position += latencies.length;
+        }
+        if (errors.get() > 0) {
+            System.out.printf("non-200 responses: %d%n", errors.get());
+        }
+        return all;
+    }
+
+    private static long createAndGetId(HttpClient client, String url, Long userId, String json) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ID_PATTERN.matcher(response.body());
+        if (response.statusCode() >= 300 || !matcher.find()) {
+            throw new IllegalStateException("Failed to seed " + url + ": " + response.statusCode() + " " + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static HttpRequest get(String url, long userId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сборки ответа GET /requests для пользователя с большим числом запросов:
+ * на каждый запрос приходится в среднем пять вещей, созданных в ответ на него.
+ * filterPerRequest - прежняя схема, список всех вещей просматривается для каждого запроса (requests x items);
+ * groupOnce - текущая схема ItemRequestServiceImpl, вещи один раз группируются по ID запроса.
+ * Время groupOnce линейно зависит от числа запросов и вещей, время filterPerRequest - от их произведения.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestGroupingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int requestsCount;
+
+    private List<ItemRequest> requests;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        User owner = SyntheticData.user(1);
+        User requester = SyntheticData.user(2);
+        requests = SyntheticData.requests(requester, requestsCount);
+        items = SyntheticData.requestedItems(requests, owner, requestsCount * 5, random);
+    }
+
+    @Benchmark
+    public void filterPerRequest(Blackhole blackhole) {
+        for (ItemRequest request : requests) {
+            List<Item> requestItems = items.stream()
+                    .filter(item -> item.getRequest().getId().equals(request.getId()))
+                    .toList();
+            blackhole.consume(toItemRequestDto(request, requestItems));
+        }
+    }
+
+    @Benchmark
+    public void groupOnce(Blackhole blackhole) {
+        Map<Long, List<Item>> itemsByRequestId = ItemRequestMapper.groupItemsByRequestId(items);
+        for (ItemRequest request : requests) {
+            blackhole.consume(ItemRequestMapper.toItemRequestDto(request, itemsByRequestId));
+        }
+    }
+
+    private static ItemRequestDto toItemRequestDto(ItemRequest request, List<Item> requestItems) {
+        List<ItemRequestDto.ItemShortDto> itemShortDtos = new ArrayList<>();
+        for (Item item : requestItems) {
+            itemShortDtos.add(new ItemRequestDto.ItemShortDto(item.getId(), item.getName(), item.getOwner().getId()));
+        }
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(itemShortDtos)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк задержки поиска вещей для каталогов разного размера и обеих реализаций ItemSearchEngine.
+ * Число вещей, подходящих под редкий запрос, фиксировано, поэтому по росту времени поиска
+ * вместе с размером каталога видно, просматривается ли весь каталог.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String NEEDLE = "theodolite";
+    private static final int NEEDLE_MATCHES = 20;
+
+    @Param({"1000", "10000", "50000"})
+    private int catalogSize;
+
+    @Param({"database", "in-memory"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private ItemSearchEngine searchEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        context = BenchmarkContext.start("shareit.search.engine=" + engine);
+        searchEngine = context.getBean(ItemSearchEngine.class);
+        User owner = SyntheticData.user(1);
+        owner.setId(null);
+        owner = context.getBean(UserRepository.class).save(owner);
+
+        List<Item> items = SyntheticData.items(owner, catalogSize, random);
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            item.setId(null);
+            if (i % (catalogSize / NEEDLE_MATCHES) == 0) {
+                item.setDescription(item.getDescription() + " " + NEEDLE);
+            }
+        }
+        // вещи индексируются так же, как при добавлении через ItemService
+        context.getBean(ItemRepository.class).saveAll(items).forEach(searchEngine::index);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemPartialDto> searchRareWord() {
+        return searchEngine.search(NEEDLE);
+    }
+
+    @Benchmark
+    public List<ItemPartialDto> searchFrequentWord() {
+        return searchEngine.search("drill");
+    }
+}
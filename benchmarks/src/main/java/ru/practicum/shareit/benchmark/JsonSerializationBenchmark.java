@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPartialDto;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сериализации Jackson списков ItemInfoDto и BookingPartialDto разного размера.
+ * ObjectMapper настраивается так же, как в приложении, через Jackson2ObjectMapperBuilder.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ItemInfoDto> items;
+    private List<BookingPartialDto> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        User owner = SyntheticData.user(1);
+        User booker = SyntheticData.user(2);
+        List<Item> ownerItems = SyntheticData.items(owner, size, random);
+        items = ownerItems.stream()
+                .map(item -> ItemMapper.toItemInfoDto(item,
+                        SyntheticData.bookings(List.of(item), booker, 2, random),
+                        SyntheticData.comments(item, booker, 3, random).stream()
+                                .map(CommentMapper::toCommentPartialDto)
+                                .toList()))
+                .toList();
+        bookings = SyntheticData.bookings(ownerItems, booker, 1, random).stream()
+                .map(BookingMapper::toBookingPartialDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeItemInfoDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingPartialDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.user.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк пропускной способности журналирования контроллеров при обработке запросов в нескольких потоках.
+ * infoWithBody - прежняя схема: запрос и результат пишутся на уровне INFO, в оба входит toString ItemInfoDto;
+ * debugRequestInfoResult - текущая схема: запрос на уровне DEBUG (выключен), результат на уровне INFO с ID.
+ * Параметр appender: sync - FileAppender в потоке запроса, async - AsyncAppender с очередью, как в logback-spring.xml.
+ * В отличие от приложений, очередь не отбрасывает события INFO, чтобы в обоих режимах записывались все строки.
+ * Журнал пишется во временный файл, удаляемый после прогона.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private Path logFile;
+    private Logger logger;
+    private Appender<ILoggingEvent> attached;
+    private ItemInfoDto item;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(SyntheticData.SEED);
+        User owner = SyntheticData.user(1);
+        User booker = SyntheticData.user(2);
+        Item entity = SyntheticData.items(owner, 1, random).getFirst();
+        item = ItemMapper.toItemInfoDto(entity,
+                SyntheticData.bookings(List.of(entity), booker, 2, random),
+                SyntheticData.comments(entity, booker, 10, random).stream()
+                        .map(CommentMapper::toCommentPartialDto)
+                        .toList());
+        userId = owner.getId();
+
+        logFile = Files.createTempFile("shareit-logging-benchmark", ".log");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+        attached = file;
+
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            attached = async;
+        }
+
+        logger = context.getLogger("ru.practicum.shareit.benchmark.ItemController");
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(attached);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        logger.detachAppender(attached);
+        attached.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public ItemInfoDto infoWithBody() {
+        logger.info("Запрос на добавление Item: {}, user ID: {}", item, userId);
+        logger.info("Успешно добавлен Item: {}, user ID: {}", item, userId);
+        return item;
+    }
+
+    @Benchmark
+    public ItemInfoDto debugRequestInfoResult() {
+        logger.debug("Запрос на добавление Item: {}, user ID: {}", item, userId);
+        logger.info("Успешно добавлен Item c ID: {}, user ID: {}", item.getId(), userId);
+        return item;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.CommentPartialDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки утилитных классов-мапперов на синтетических графах объектов разного размера:
+ * ItemMapper.toItemInfoDto (поиск последнего и следующего бронирования),
+ * BookingMapper.toBookingPartialDto (преобразование списка бронирований),
+ * ItemRequestMapper.toItemRequestDto (сопоставление запросов и вещей).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private Item item;
+    private List<Booking> bookings;
+    private List<CommentPartialDto> comments;
+    private List<ItemRequest> requests;
+    private List<Item> requestedItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        User owner = SyntheticData.user(1);
+        User booker = SyntheticData.user(2);
+        item = SyntheticData.items(owner, 1, random).getFirst();
+        bookings = SyntheticData.bookings(List.of(item), booker, size, random);
+        comments = SyntheticData.comments(item, booker, size, random).stream()
+                .map(CommentMapper::toCommentPartialDto)
+                .toList();
+        requests = SyntheticData.requests(booker, size);
+        requestedItems = SyntheticData.requestedItems(requests, owner, size * 5, random);
+    }
+
+    @Benchmark
+    public Object itemMapperToItemInfoDto() {
+        return ItemMapper.toItemInfoDto(item, bookings, comments);
+    }
+
+    @Benchmark
+    public void bookingMapperToBookingPartialDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toBookingPartialDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void itemRequestMapperToItemRequestDto(Blackhole blackhole) {
+        for (ItemRequest request : requests) {
+            blackhole.consume(ItemRequestMapper.toItemRequestDto(request, requestedItems));
+        }
+    }
+}
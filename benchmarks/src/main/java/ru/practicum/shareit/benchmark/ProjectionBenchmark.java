@@ -0,0 +1,124 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingPartialDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки чтения больших списков в транзакции только для чтения: загрузка entity с последующим
+ * преобразованием мапперами против проекции jpql-выражением SELECT new сразу в dto.
+ * Выделение памяти на операцию выводит профайлер gc (профиль jmh-results или -Djmh.args="-prof gc").
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+    private static final int ITEMS_COUNT = 100;
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnlyTransaction;
+    private EntityManager entityManager;
+    private BookingRepository bookingRepository;
+    private ItemRequestRepository itemRequestRepository;
+    private Long bookerId;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        bookingRepository = context.getBean(BookingRepository.class);
+        itemRequestRepository = context.getBean(ItemRequestRepository.class);
+
+        Random random = new Random(SyntheticData.SEED);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = SyntheticData.user(1);
+        User booker = SyntheticData.user(2);
+        owner.setId(null);
+        booker.setId(null);
+        owner = userRepository.save(owner);
+        booker = userRepository.save(booker);
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        List<Item> items = SyntheticData.items(owner, ITEMS_COUNT, random);
+        items.forEach(item -> item.setId(null));
+        items = context.getBean(ItemRepository.class).saveAll(items);
+
+        List<Booking> bookings = SyntheticData.bookings(items, booker, rows / ITEMS_COUNT, random);
+        bookings.forEach(booking -> booking.setId(null));
+        bookingRepository.saveAll(bookings);
+
+        List<ItemRequest> requests = SyntheticData.requests(booker, rows);
+        requests.forEach(request -> request.setId(null));
+        itemRequestRepository.saveAll(requests);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingPartialDto> userBookingsEntities() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT b FROM Booking AS b JOIN FETCH b.item JOIN FETCH b.booker " +
+                                "WHERE b.booker.id = :bookerId ORDER BY b.start DESC", Booking.class)
+                .setParameter("bookerId", bookerId)
+                .getResultList().stream()
+                .map(BookingMapper::toBookingPartialDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookingPartialDto> userBookingsProjection() {
+        return readOnlyTransaction.execute(status -> bookingRepository.findByBookerIdOrderByStartDesc(bookerId));
+    }
+
+    @Benchmark
+    public List<ItemRequestShortDto> otherUsersRequestsEntities() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT r FROM ItemRequest AS r WHERE r.requester.id <> :requesterId " +
+                                "ORDER BY r.created DESC", ItemRequest.class)
+                .setParameter("requesterId", ownerId)
+                .getResultList().stream()
+                .map(ItemRequestMapper::toItemRequestShortDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ItemRequestShortDto> otherUsersRequestsProjection() {
+        return readOnlyTransaction.execute(status ->
+                itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(ownerId));
+    }
+}
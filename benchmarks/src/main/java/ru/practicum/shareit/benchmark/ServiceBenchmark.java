@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сервисного слоя поверх встроенной базы H2, заполненной синтетическими данными:
+ * список вещей владельца с последним и следующим бронированием и комментариями,
+ * полный список бронирований пользователя и первая страница keyset-пагинации.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int COMMENTS_PER_ITEM = 3;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10", "100"})
+    private int itemsPerOwner;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private Long ownerId;
+    private Long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+
+        Random random = new Random(SyntheticData.SEED);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = SyntheticData.user(1);
+        User booker = SyntheticData.user(2);
+        owner.setId(null);
+        booker.setId(null);
+        owner = userRepository.save(owner);
+        booker = userRepository.save(booker);
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        List<Item> items = SyntheticData.items(owner, itemsPerOwner, random);
+        items.forEach(item -> item.setId(null));
+        items = context.getBean(ItemRepository.class).saveAll(items);
+
+        List<Booking> bookings = SyntheticData.bookings(items, booker, BOOKINGS_PER_ITEM, random);
+        bookings.forEach(booking -> booking.setId(null));
+        context.getBean(BookingRepository.class).saveAll(bookings);
+
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : items) {
+            comments.addAll(SyntheticData.comments(item, booker, COMMENTS_PER_ITEM, random));
+        }
+        comments.forEach(comment -> comment.setId(null));
+        context.getBean(CommentRepository.class).saveAll(comments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getAllItemsByOwnerId() {
+        return itemService.getAllItemsByOwnerId(ownerId);
+    }
+
+    @Benchmark
+    public Object getUserBookings() {
+        return bookingService.getUserBookings(bookerId, BookingState.ALL);
+    }
+
+    @Benchmark
+    public Object getUserBookingsFirstPage() {
+        return bookingService.getUserBookings(bookerId, BookingState.ALL, null, PAGE_SIZE);
+    }
+}
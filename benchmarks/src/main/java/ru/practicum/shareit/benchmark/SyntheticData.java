@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Утилитный класс для построения синтетических графов объектов entity заданного размера.
+ * Используется фиксированное зерно генератора, чтобы наборы данных совпадали между запусками.
+ */
+
+public final class SyntheticData {
+    public static final long SEED = 20250501L;
+    public static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 1, 12, 0);
+    private static final String[] WORDS = {
+            "drill", "saw", "hammer", "ladder", "tent", "kayak", "bike", "camera", "tripod", "projector",
+            "speaker", "grill", "mixer", "scooter", "helmet", "stroller", "skates", "board", "lamp", "table"
+    };
+
+    private SyntheticData() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user" + id)
+                .email("user" + id + "@shareit.benchmark")
+                .build();
+    }
+
+    public static List<Item> items(User owner, int count, Random random) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(Item.builder()
+                    .id((long) i + 1)
+                    .name(itemName(i, random))
+                    .description(description(random))
+                    .available(true)
+                    .owner(owner)
+                    .request(null)
+                    .build());
+        }
+        return items;
+    }
+
+    public static List<Booking> bookings(List<Item> items, User booker, int perItem, Random random) {
+        List<Booking> bookings = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                LocalDateTime start = NOW.plusDays(random.nextInt(720) - 360);
+                bookings.add(Booking.builder()
+                        .id(id++)
+                        .start(start)
+                        .end(start.plusDays(1 + random.nextInt(14)))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.values()[random.nextInt(BookingStatus.values().length)])
+                        .build());
+            }
+        }
+        return bookings;
+    }
+
+    public static List<Comment> comments(Item item, User author, int count, Random random) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(Comment.builder()
+                    .id((long) i + 1)
+                    .text(description(random))
+                    .item(item)
+                    .author(author)
+                    .created(NOW.minusDays(random.nextInt(365)))
+                    .build());
+        }
+        return comments;
+    }
+
+    public static List<ItemRequest> requests(User requester, int count) {
+        List<ItemRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(ItemRequest.builder()
+                    .id((long) i + 1)
+                    .description("request" + i)
+                    .created(NOW.minusHours(i))
+                    .requester(requester)
+                    .build());
+        }
+        return requests;
+    }
+
+    /**
+     * Вещи, созданные в ответ на запросы: каждая вещь ссылается на случайный запрос из списка.
+     */
+    public static List<Item> requestedItems(List<ItemRequest> requests, User owner, int count, Random random) {
+        List<Item> items = items(owner, count, random);
+        for (Item item : items) {
+            item.setRequest(requests.get(random.nextInt(requests.size())));
+        }
+        return items;
+    }
+
+    public static String itemName(int index, Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " #" + index;
+    }
+
+    public static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return description.toString().trim();
+    }
+}
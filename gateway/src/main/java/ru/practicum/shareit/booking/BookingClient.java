@@ -1,38 +1,43 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerResilience;
 
 /**
  * BookingClient - класс, наследующий класс BaseClient и использует
  * необходимый набор методов для взаимодействия с REST API.
  * Формирует корректные запросы и обрабатывает ответы от микросервиса shareIt Service
  * по объекту Booking, путь /bookings, HTTP-запросы - GET, POST, PATCH
- * Для постоения RestTemplate используется реализация от HttpComponents
+ * Списки Booking запрашиваются целиком, либо постранично по токену продолжения cursor
+ * RestTemplate строится с HTTP-клиентом, выбранным в ShareItServerClientConfig
  */
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final String CLIENT_NAME = "bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ShareItServerResilience resilience) {
         super(
-                builder
+                resilience.applyTimeouts(CLIENT_NAME, builder)
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                resilience.guard(CLIENT_NAME)
         );
     }
 
@@ -40,6 +45,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingCreateDto);
     }
 
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        return post("/batch", userId, bookingCreateDtos);
+    }
+
     public ResponseEntity<Object> updateBookingStatus(long userId, Long bookingId, Boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
@@ -48,13 +57,42 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
+    public ResponseEntity<Object> getBookingsByIds(Long userId, List<Long> bookingIds) {
+        return getByIds("", userId, bookingIds);
+    }
+
     public ResponseEntity<Object> getUserBookings(Long userId, BookingState state) {
         Map<String, Object> parameters = Map.of("state", state.name());
-        return get("", userId, parameters);
+        return get("?state={state}", userId, parameters);
     }
 
     public ResponseEntity<Object> getAllUserItemsBookings(Long userId, BookingState state) {
         Map<String, Object> params = Map.of("state", state.name());
-        return get("/owner", userId, params);
+        return get("/owner?state={state}", userId, params);
+    }
+
+    public ResponseEntity<Object> getUserBookings(Long userId, BookingState state, String cursor, Integer size) {
+        return getBookingsPage("", userId, state, cursor, size);
+    }
+
+    public ResponseEntity<Object> getAllUserItemsBookings(Long userId, BookingState state, String cursor,
+                                                          Integer size) {
+        return getBookingsPage("/owner", userId, state, cursor, size);
+    }
+
+    private ResponseEntity<Object> getBookingsPage(String path, Long userId, BookingState state, String cursor,
+                                                   Integer size) {
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        Map<String, Object> params = new HashMap<>();
+        params.put("state", state.name());
+        if (cursor != null) {
+            query.append("&cursor={cursor}");
+            params.put("cursor", cursor);
+        }
+        if (size != null) {
+            query.append("&size={size}");
+            params.put("size", size);
+        }
+        return get(query.toString(), userId, params);
     }
 }
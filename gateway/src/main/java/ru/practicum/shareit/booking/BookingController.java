@@ -5,16 +5,25 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.util.List;
+
 /**
  * BookingController — класс-контроллер, предоставляющий REST API для работы с данными типа Booking.
  * Базовый путь - /bookings.
  * Принимает, проводит валидацию сообщений от пользователей. Корректные запросы отправляются
  * микросервису shareIt Service и от него возвращаются запрошенные данные для пользователей.
+ * Списки Booking выдаются постранично при указании параметров size и/или cursor,
+ * токен следующей страницы возвращается в заголовке ответа X-Next-Cursor.
+ * Пакетное добавление принимает до 500 Booking, каждый из которых проходит ту же валидацию, что и одиночный.
+ * Пакетное чтение GET /bookings?ids=1,2,3 принимает до 100 ID.
  */
 
 @Controller
@@ -25,14 +34,31 @@ import ru.practicum.shareit.booking.dto.BookingState;
         produces = "application/json"
 )
 public class BookingController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_IDS = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<Object> addBooking(@RequestBody @Valid BookingCreateDto booking,
                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление Booking: {}, user ID: {}", booking, userId);
+        log.debug("Запрос на добавление Booking: {}, user ID: {}", booking, userId);
         ResponseEntity<Object> re = bookingClient.addBooking(userId, booking);
-        log.info("Успешно добавлен Booking: {}, user ID: {}", re.getBody(), userId);
+        log.info("Успешно добавлен Booking, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
+        return re;
+    }
+
+    @PostMapping(
+            path = "/batch",
+            consumes = "application/json"
+    )
+    public ResponseEntity<Object> addBookings(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid BookingCreateDto> bookings,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на добавление {} Booking, user ID: {}", bookings.size(), userId);
+        ResponseEntity<Object> re = bookingClient.addBookings(userId, bookings);
+        log.info("Успешно добавлены Booking, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
         return re;
     }
 
@@ -40,29 +66,46 @@ public class BookingController {
     public ResponseEntity<Object> updateBookingStatus(@PathVariable Long bookingId,
                                                       @RequestParam(name = "approved") Boolean approved,
                                                       @RequestHeader(name = "X-Sharer-User-Id") long userId) {
-        log.info("Запрос на обновление Booking по ID: {}, user ID: {}", bookingId, userId);
+        log.debug("Запрос на обновление Booking по ID: {}, user ID: {}", bookingId, userId);
         ResponseEntity<Object> re = bookingClient.updateBookingStatus(userId, bookingId, approved);
-        log.info("Успешно обновлен Booking: {}, user ID: {}", re.getBody(), userId);
+        log.info("Успешно обновлен Booking, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
         return re;
     }
 
     @GetMapping(path = "/{bookingId}")
     public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                                  @RequestHeader(name = "X-Sharer-User-Id") long userId) {
-        log.info("Запрос на получение Booking по ID: {}, user ID: {}", bookingId, userId);
+        log.debug("Запрос на получение Booking по ID: {}, user ID: {}", bookingId, userId);
         ResponseEntity<Object> re = bookingClient.getBookingById(userId, bookingId);
-        log.info("Успешно получен Booking: {}, user ID: {}", re.getBody(), userId);
+        log.info("Успешно получен Booking, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
+        return re;
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getBookingsByIds(
+            @RequestParam(name = "ids") @Size(min = 1, max = MAX_IDS) List<Long> ids,
+            @RequestHeader(name = "X-Sharer-User-Id") long userId) {
+        log.debug("Запрос на получение {} Booking по списку ID, user ID: {}", ids.size(), userId);
+        ResponseEntity<Object> re = bookingClient.getBookingsByIds(userId, ids);
+        log.info("Успешно получены Booking по списку ID, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
         return re;
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllUserBookings(
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") long userId) {
         BookingState state = BookingState.getBookingState(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Bad booking state param: " + stateParam));
-        log.info("Запрос на получение Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
-        ResponseEntity<Object> re = bookingClient.getUserBookings(userId, state);
+        log.debug("Запрос на получение Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
+        ResponseEntity<Object> re;
+        if (cursor == null && size == null) {
+            re = bookingClient.getUserBookings(userId, state);
+        } else {
+            re = bookingClient.getUserBookings(userId, state, cursor, size);
+        }
         log.info("Успешно получены Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
         return re;
     }
@@ -70,11 +113,18 @@ public class BookingController {
     @GetMapping(path = "/owner")
     public ResponseEntity<Object> getAllUserItemsBookings(
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") long userId) {
         BookingState state = BookingState.getBookingState(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Bad booking state param: " + stateParam));
-        log.info("Запрос на получение Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
-        ResponseEntity<Object> re = bookingClient.getAllUserItemsBookings(userId, state);
+        log.debug("Запрос на получение Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
+        ResponseEntity<Object> re;
+        if (cursor == null && size == null) {
+            re = bookingClient.getAllUserItemsBookings(userId, state);
+        } else {
+            re = bookingClient.getAllUserItemsBookings(userId, state, cursor, size);
+        }
         log.info("Успешно получены Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
         return re;
     }
@@ -1,28 +1,88 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ETag;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Базовый класс, предоставляющий набор методов для взаимодействия с REST API,
  * HTTP-запросы - GET, POST, PUT, PATCH, DELETE
  * За основу взят класс RestTemplate из org.springframework.web.client
+ * Тело запроса сериализуется конвертерами RestTemplate, тело ответа сервера не разбирается,
+ * а копируется потоком в ответ клиенту (InputStreamResource) вместе со статусом и заголовками ответа
+ * GET-запросы к ресурсам с ETag (getRevalidated) используют общий EtagCache: повторный запрос отправляется
+ * серверу с If-None-Match, и при ответе 304 клиенту возвращается тело из кэша без передачи его сервером.
+ * Если If-None-Match клиента совпадает с актуальным ETag, клиенту возвращается 304 без тела.
+ * Запросы принимают application/json, другие типы ответа (например, поток application/x-ndjson)
+ * перечисляются в get с параметром accept, ответ передается клиенту без буферизации тем же потоком.
+ * getByIds передает список ID одним параметром ids через запятую для пакетного чтения на сервере.
+ * getRevalidated и getCoalesced читают ответ сервера в память и передают его через RequestCoalescer:
+ * одинаковые параллельные запросы (URI, X-Sharer-User-Id, If-None-Match) выполняются сервером один раз.
+ * getCoalesced без userId используется для ответов, не зависящих от пользователя.
+ * Если задан ClientGuard, каждый запрос к серверу проходит через bulkhead и circuit breaker клиента,
+ * при отказе клиенту шлюза возвращается 503 (ShareItServerUnavailableException).
  */
 
 public class BaseClient {
+    // заголовки соединения с сервером не переносятся в ответ шлюза
+    private static final Set<String> NOT_FORWARDED_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "transfer-encoding", "te", "trailer", "upgrade");
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
     protected final RestTemplate rest;
+    @Nullable
+    private final EtagCache etagCache;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ClientGuard guard;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ClientGuard guard) {
+        this(rest, null, null, guard);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable EtagCache etagCache) {
+        this(rest, etagCache, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable EtagCache etagCache, @Nullable RequestCoalescer coalescer) {
+        this(rest, etagCache, coalescer, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable EtagCache etagCache, @Nullable RequestCoalescer coalescer,
+                      @Nullable ClientGuard guard) {
         this.rest = rest;
+        this.etagCache = etagCache;
+        this.coalescer = coalescer;
+        this.guard = guard;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -37,6 +97,55 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                         List<MediaType> accept) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, accept);
+    }
+
+    protected ResponseEntity<Object> getByIds(String path, @Nullable Long userId, Collection<Long> ids) {
+        Map<String, Object> parameters = Map.of("ids", ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        return get(path + "?ids={ids}", userId, parameters);
+    }
+
+    protected ResponseEntity<Object> getRevalidated(String path, @Nullable Long userId, @Nullable String ifNoneMatch) {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        String cacheKey = userId + " " + uri;
+        EtagCache.CachedResponse cached = etagCache != null ? etagCache.get(cacheKey) : null;
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.etag());
+        } else if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        RequestCoalescer.SharedResponse response = exchangeShared(uri, headers);
+        HttpStatusCode status = response.status();
+        if (cached != null && status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return fromCache(cached, ifNoneMatch);
+        }
+        String etag = response.headers().getETag();
+        if (etagCache == null || !status.is2xxSuccessful() || etag == null) {
+            if (cached != null) {
+                etagCache.invalidate(cacheKey);
+            }
+            return toGatewayResponse(response);
+        }
+        EtagCache.CachedResponse fresh = new EtagCache.CachedResponse(etag, response.headers().getContentType(),
+                response.body());
+        etagCache.put(cacheKey, fresh);
+        return fromCache(fresh, ifNoneMatch);
+    }
+
+    protected ResponseEntity<Object> getCoalesced(String path, @Nullable Long userId,
+                                                  @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        return toGatewayResponse(exchangeShared(uri, defaultHeaders(userId)));
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -86,19 +195,47 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return makeAndSendRequest(method, path, userId, parameters, body, List.of(MediaType.APPLICATION_JSON));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                          List<MediaType> accept) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(accept);
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+
+        return prepareGatewayResponse(execute(method, uri, requestEntity));
+    }
+
+    private <T> ClientHttpResponse execute(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
+        ClientGuard.ServerCall call = () -> {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            return request.execute();
+        };
+        if (guard != null) {
+            return guard.execute(method + " request for \"" + uri + "\"", call);
+        }
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return call.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private RequestCoalescer.SharedResponse exchangeShared(URI uri, HttpHeaders headers) {
+        Supplier<RequestCoalescer.SharedResponse> request =
+                () -> readResponse(execute(HttpMethod.GET, uri, new HttpEntity<>(headers)));
+        if (coalescer == null) {
+            return request.get();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        String key = uri + " " + headers.getFirst(USER_ID_HEADER) + " " + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        return coalescer.execute(key, request);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -106,22 +243,70 @@ public class BaseClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response) {
+        HttpHeaders headers = forwardedHeaders(response);
+        try {
+            return new ResponseEntity<>(new InputStreamResource(responseBody(response)), headers,
+                    response.getStatusCode());
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on reading shareIt Server response: " + e.getMessage(), e);
+        }
+    }
+
+    private static RequestCoalescer.SharedResponse readResponse(ClientHttpResponse response) {
+        try (response) {
+            return new RequestCoalescer.SharedResponse(response.getStatusCode(),
+                    HttpHeaders.readOnlyHttpHeaders(forwardedHeaders(response)), response.getBody().readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on reading shareIt Server response: " + e.getMessage(), e);
         }
+    }
+
+    private static ResponseEntity<Object> toGatewayResponse(RequestCoalescer.SharedResponse response) {
+        if (response.body().length == 0) {
+            return new ResponseEntity<>(response.headers(), response.status());
+        }
+        return new ResponseEntity<>(response.body(), response.headers(), response.status());
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static HttpHeaders forwardedHeaders(ClientHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!NOT_FORWARDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> fromCache(EtagCache.CachedResponse cached, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(cached.etag());
+        ETag current = ETag.create(cached.etag());
+        if (ifNoneMatch != null && ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false))) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
         }
+        if (cached.contentType() != null) {
+            headers.setContentType(cached.contentType());
+        }
+        return new ResponseEntity<>(cached.body(), headers, HttpStatus.OK);
+    }
 
-        return responseBuilder.build();
+    // при закрытии потока, после копирования тела клиенту, закрывается ответ сервера
+    // и соединение возвращается в пул
+    private static InputStream responseBody(ClientHttpResponse response) throws IOException {
+        return new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
     }
 }
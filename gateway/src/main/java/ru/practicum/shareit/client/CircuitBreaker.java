@@ -0,0 +1,158 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker запросов одного *Client к микросервису shareIt Service.
+ * CLOSED - запросы проходят, итог последних slidingWindowSize запросов запоминается; когда среди них
+ * не меньше minimumCalls и доля ошибок достигает failureRateThreshold процентов, цепь размыкается.
+ * OPEN - запросы отклоняются без обращения к серверу в течение openDuration.
+ * HALF_OPEN - пропускается не более halfOpenCalls пробных запросов: все успешны - цепь замыкается,
+ * первая ошибка - снова размыкается.
+ * Ошибкой считается ответ 5xx или ошибка ввода-вывода (таймаут, отказ в соединении).
+ */
+
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    // кольцевой буфер итогов последних запросов в состоянии CLOSED, true - ошибка
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this(failureRateThreshold, slidingWindowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRateThreshold, int slidingWindowSize, int minimumCalls,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        if (slidingWindowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit breaker window and half-open calls must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), slidingWindowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[slidingWindowSize];
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Разрешение на запрос к серверу. Полученное разрешение завершается вызовом onSuccess, onFailure
+     * или, если запрос так и не был отправлен, release.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                halfOpenSuccesses++;
+                if (halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+            }
+            case OPEN -> {
+                // ответ на запрос, отправленный до размыкания цепи, не влияет на состояние
+            }
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+                if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> open();
+            case OPEN -> {
+            }
+        }
+    }
+
+    /**
+     * Время до перехода из OPEN в HALF_OPEN, для заголовка Retry-After.
+     */
+    public synchronized Duration remainingOpenDuration() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(openDurationNanos - (nanoClock.getAsLong() - openedAt), 0));
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Защита запросов одного *Client (items, bookings, users, requests) к микросервису shareIt Service.
+ * Bulkhead - не более maxConcurrentCalls одновременных запросов клиента: медленный сервер занимает
+ * потоки шлюза только этого клиента, остальные запросы ждут свободного места не дольше maxWait.
+ * CircuitBreaker - при разомкнутой цепи запрос не отправляется.
+ * В обоих случаях, а также при ошибке ввода-вывода (таймаут соединения или ответа) бросается
+ * ShareItServerUnavailableException - клиенту шлюза возвращается 503.
+ * Место в bulkhead занято до получения статуса и заголовков ответа, тело передается клиенту уже без него.
+ * Если ответ получен, но его статус прочитать не удалось, ответ закрывается и соединение возвращается в пул.
+ */
+
+public class ClientGuard {
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final long maxWaitNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder circuitRejected = new LongAdder();
+
+    public ClientGuard(String name, int maxConcurrentCalls, Duration maxWait, CircuitBreaker circuitBreaker) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public ClientHttpResponse execute(String description, ServerCall call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejected.increment();
+            throw new ShareItServerUnavailableException("shareIt Server is unavailable, circuit breaker "
+                    + name + " is open", circuitBreaker.remainingOpenDuration(), null);
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.release();
+            bulkheadRejected.increment();
+            throw new ShareItServerUnavailableException("Too many concurrent requests to shareIt Server ("
+                    + name + ")", BULKHEAD_RETRY_AFTER, null);
+        }
+        ClientHttpResponse response = null;
+        try {
+            response = call.execute();
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            return response;
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            closeIfReceived(response);
+            throw new ShareItServerUnavailableException("I/O error on " + description + ": " + e.getMessage(),
+                    circuitBreaker.remainingOpenDuration(), e);
+        } catch (RuntimeException | Error e) {
+            circuitBreaker.onFailure();
+            closeIfReceived(response);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    public long getBulkheadRejected() {
+        return bulkheadRejected.sum();
+    }
+
+    public long getCircuitRejected() {
+        return circuitRejected.sum();
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeIfReceived(ClientHttpResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ServerCall {
+        ClientHttpResponse execute() throws IOException;
+    }
+}
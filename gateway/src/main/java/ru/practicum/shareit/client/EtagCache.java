@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+/**
+ * Общий для всех *Client кэш ответов микросервиса shareIt Service, отданных с заголовком ETag.
+ * Ключ - идентификатор пользователя X-Sharer-User-Id и URI запроса, значение - ETag, тип и тело ответа.
+ * Размер кэша ограничен суммарным объемом тел ответов, при превышении вытесняются редко используемые записи.
+ * Доля попаданий публикуется через actuator как cache.gets с тегом cache=etag-responses.
+ */
+
+public class EtagCache implements MeterBinder {
+    private static final String CACHE_NAME = "etag-responses";
+
+    private final Cache<String, CachedResponse> responses;
+
+    public EtagCache(long maxBytes) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    public void invalidate(String key) {
+        responses.invalidate(key);
+    }
+
+    public record CachedResponse(String etag, @Nullable MediaType contentType, byte[] body) {
+    }
+}
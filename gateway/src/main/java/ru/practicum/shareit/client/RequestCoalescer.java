@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых параллельных GET-запросов *Client к микросервису shareIt Service (single-flight).
+ * Первый запрос с данным ключом выполняется, остальные, пришедшие до его завершения, ждут и получают
+ * тот же ответ, прочитанный в память. Ключ строит вызывающий: метод, URI с параметрами и заголовки,
+ * от которых зависит ответ (X-Sharer-User-Id, If-None-Match).
+ * Таблица выполняющихся запросов ограничена maxInFlight ключами: при заполнении запрос выполняется
+ * без объединения, maxInFlight = 0 отключает объединение.
+ * Счетчик shareit.server.client.coalescing с тегом result: executed - запрос отправлен серверу
+ * и его ответ доступен другим, shared - ответ получен от чужого запроса, bypassed - запрос выполнен
+ * без объединения. Доля сэкономленных запросов - shared / (executed + shared + bypassed).
+ */
+
+public class RequestCoalescer implements MeterBinder {
+    public static final String COUNTER_NAME = "shareit.server.client.coalescing";
+
+    private final ConcurrentHashMap<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public RequestCoalescer(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "executed", executed);
+        bindCounter(registry, "shared", shared);
+        bindCounter(registry, "bypassed", bypassed);
+        Gauge.builder(COUNTER_NAME + ".in.flight", inFlight, ConcurrentHashMap::size)
+                .description("GET requests to shareIt Server currently open for coalescing")
+                .register(registry);
+    }
+
+    public SharedResponse execute(String key, Supplier<SharedResponse> request) {
+        CompletableFuture<SharedResponse> running = inFlight.get(key);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+        if (inFlight.size() >= maxInFlight) {
+            bypassed.increment();
+            return request.get();
+        }
+        CompletableFuture<SharedResponse> own = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            SharedResponse response = request.get();
+            own.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static SharedResponse await(CompletableFuture<SharedResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder(COUNTER_NAME, count, LongAdder::doubleValue)
+                .description("GET requests to shareIt Server by coalescing result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Ответ сервера, прочитанный в память: тело и заголовки не изменяются, поэтому один экземпляр
+     * передается всем объединенным запросам.
+     */
+    public record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация HTTP-клиента, которым все *Client обращаются к микросервису shareIt Service.
+ * Все клиенты используют один пул соединений HttpComponents с ограничением числа соединений,
+ * таймаутами, повторным использованием соединений (HTTP/1.1 keep-alive) и закрытием простаивающих соединений.
+ * Метрики пула публикуются через actuator (httpcomponents.httpclient.pool.*).
+ * Запросы шлюза обрабатываются пулом потоков Tomcat; со свойством Spring Boot spring.threads.virtual.enabled=true
+ * каждый запрос обрабатывается в виртуальном потоке, и ожидание ответа сервера и свободного соединения в пуле
+ * не занимает поток платформы. Клиент shareIt Service в обоих случаях один и тот же.
+ * Кэш ответов с ETag для условных запросов ограничен объемом shareit-server.etag-cache.max-size.
+ * Одинаковые параллельные GET объединяет RequestCoalescer, не более shareit-server.coalescing.max-in-flight ключей.
+ * Время запросов к серверу измеряет ShareItServerClientMetrics, добавленный во все RestTemplate.
+ * Bulkhead, circuit breaker и таймауты отдельных клиентов задает ShareItServerResilience (shareit-server.resilience).
+ */
+
+@Configuration
+@EnableConfigurationProperties({ShareItServerPoolProperties.class, ShareItServerResilienceProperties.class})
+public class ShareItServerClientConfig {
+    @Bean
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(ShareItServerPoolProperties pool) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(pool.getConnectTimeout()))
+                        .setSocketTimeout(toTimeout(pool.getReadTimeout()))
+                        .setTimeToLive(toTimeValue(pool.getTimeToLive()))
+                        .setValidateAfterInactivity(toTimeValue(pool.getValidateAfterInactivity()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       ShareItServerPoolProperties pool) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(toTimeout(pool.getConnectionRequestTimeout()))
+                        .setResponseTimeout(toTimeout(pool.getReadTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(pool.getIdleTimeout()))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactoryBuilder<?> shareItServerRequestFactoryBuilder(CloseableHttpClient httpClient) {
+        return ClientHttpRequestFactoryBuilder.of(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public EtagCache shareItServerEtagCache(@Value("${shareit-server.etag-cache.max-size:16MB}") DataSize maxSize) {
+        return new EtagCache(maxSize.toBytes());
+    }
+
+    @Bean
+    public RequestCoalescer shareItServerRequestCoalescer(
+            @Value("${shareit-server.coalescing.max-in-flight:1024}") int maxInFlight) {
+        return new RequestCoalescer(maxInFlight);
+    }
+
+    @Bean
+    public ShareItServerResilience shareItServerResilience(ShareItServerResilienceProperties properties) {
+        return new ShareItServerResilience(properties);
+    }
+
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+    }
+
+    @Bean
+    public RestTemplateCustomizer shareItServerClientMetricsCustomizer(MeterRegistry registry) {
+        ShareItServerClientMetrics metrics = new ShareItServerClientMetrics(registry);
+        return restTemplate -> restTemplate.getInterceptors().add(metrics);
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
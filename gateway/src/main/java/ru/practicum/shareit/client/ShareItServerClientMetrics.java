@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Таймер запросов *Client к микросервису shareIt Service (shareit.server.client.requests).
+ * BaseClient выполняет запросы напрямую через фабрику запросов RestTemplate, минуя наблюдение
+ * http.client.requests, поэтому время измеряется перехватчиком: от отправки запроса до получения
+ * статуса и заголовков ответа, копирование тела клиенту в таймер не входит.
+ * Теги: method, uri (числовые сегменты пути заменены на {id}, параметры отброшены),
+ * status (код ответа или IO_ERROR) и outcome (SUCCESS, CLIENT_ERROR, SERVER_ERROR...).
+ */
+
+public class ShareItServerClientMetrics implements ClientHttpRequestInterceptor {
+    public static final String TIMER_NAME = "shareit.server.client.requests";
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry registry;
+
+    public ShareItServerClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        String status = "IO_ERROR";
+        String outcome = "UNKNOWN";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int code = response.getStatusCode().value();
+            status = String.valueOf(code);
+            outcome = outcome(code);
+            return response;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Requests from gateway to shareIt Server")
+                    .tag("method", request.getMethod().name())
+                    .tag("uri", uriTemplate(request))
+                    .tag("status", status)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    private static String uriTemplate(HttpRequest request) {
+        String path = request.getURI().getRawPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static String outcome(int code) {
+        return switch (code / 100) {
+            case 1 -> "INFORMATIONAL";
+            case 2 -> "SUCCESS";
+            case 3 -> "REDIRECTION";
+            case 4 -> "CLIENT_ERROR";
+            case 5 -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+}
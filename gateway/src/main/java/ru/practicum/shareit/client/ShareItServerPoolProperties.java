@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений шлюза с микросервисом shareIt Service,
+ * префикс shareit-server.pool.
+ */
+
+@Getter(AccessLevel.PUBLIC)
+@Setter(AccessLevel.PUBLIC)
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ShareItServerPoolProperties {
+    // максимальное число соединений всего и к одному хосту
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    // ожидание установки соединения, ответа сервера и свободного соединения в пуле
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    // соединения, простаивающие дольше idleTimeout, закрываются фоновым потоком
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ofMinutes(5);
+    // простаивающее дольше этого соединение проверяется перед повторным использованием
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClientGuard для каждого *Client по имени (items, bookings, users, requests) и таймауты клиентов
+ * по настройкам ShareItServerResilienceProperties.
+ * Метрики с тегом client: shareit.server.client.circuit.state (0 - CLOSED, 1 - HALF_OPEN, 2 - OPEN),
+ * shareit.server.client.bulkhead.active - запросы, выполняющиеся сейчас,
+ * shareit.server.client.rejected с тегом reason (circuit-open, bulkhead-full) - запросы, отклоненные без
+ * обращения к серверу.
+ */
+
+public class ShareItServerResilience implements MeterBinder {
+    private final ShareItServerResilienceProperties properties;
+    private final Map<String, ClientGuard> guards = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new ArrayList<>();
+
+    public ShareItServerResilience(ShareItServerResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    public ClientGuard guard(String client) {
+        return guards.computeIfAbsent(client, this::createGuard);
+    }
+
+    /**
+     * Таймауты клиента, если они заданы в clients.{client}, иначе остаются таймауты общего пула.
+     */
+    public RestTemplateBuilder applyTimeouts(String client, RestTemplateBuilder builder) {
+        ShareItServerResilienceProperties.Client settings = properties.getClients().get(client);
+        if (settings == null) {
+            return builder;
+        }
+        if (settings.getConnectTimeout() != null) {
+            builder = builder.connectTimeout(settings.getConnectTimeout());
+        }
+        if (settings.getReadTimeout() != null) {
+            builder = builder.readTimeout(settings.getReadTimeout());
+        }
+        return builder;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        guards.values().forEach(guard -> bindGuard(registry, guard));
+    }
+
+    private synchronized ClientGuard createGuard(String client) {
+        ShareItServerResilienceProperties.Client settings = properties.getClients().get(client);
+        int maxConcurrentCalls = settings != null && settings.getMaxConcurrentCalls() != null
+                ? settings.getMaxConcurrentCalls()
+                : properties.getMaxConcurrentCalls();
+        ClientGuard guard = new ClientGuard(client, maxConcurrentCalls, properties.getMaxWait(),
+                new CircuitBreaker(properties.getFailureRateThreshold(), properties.getSlidingWindowSize(),
+                        properties.getMinimumCalls(), properties.getOpenDuration(), properties.getHalfOpenCalls()));
+        registries.forEach(registry -> bindGuard(registry, guard));
+        return guard;
+    }
+
+    private static void bindGuard(MeterRegistry registry, ClientGuard guard) {
+        Gauge.builder("shareit.server.client.circuit.state", guard, g -> g.getCircuitBreaker().getState().ordinal())
+                .description("Circuit breaker state of requests to shareIt Server: 0 closed, 1 half-open, 2 open")
+                .tag("client", guard.getName())
+                .register(registry);
+        Gauge.builder("shareit.server.client.bulkhead.active", guard, ClientGuard::getActiveCalls)
+                .description("Requests to shareIt Server currently holding a bulkhead permit")
+                .tag("client", guard.getName())
+                .register(registry);
+        FunctionCounter.builder("shareit.server.client.rejected", guard, ClientGuard::getCircuitRejected)
+                .description("Requests to shareIt Server rejected without calling the server")
+                .tag("client", guard.getName())
+                .tag("reason", "circuit-open")
+                .register(registry);
+        FunctionCounter.builder("shareit.server.client.rejected", guard, ClientGuard::getBulkheadRejected)
+                .description("Requests to shareIt Server rejected without calling the server")
+                .tag("client", guard.getName())
+                .tag("reason", "bulkhead-full")
+                .register(registry);
+    }
+}
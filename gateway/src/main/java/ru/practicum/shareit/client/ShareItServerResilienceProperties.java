@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки bulkhead и circuit breaker запросов *Client к микросервису shareIt Service,
+ * префикс shareit-server.resilience. Значения верхнего уровня действуют для каждого клиента,
+ * clients.{items|bookings|users|requests} переопределяют их для отдельного клиента.
+ */
+
+@Getter(AccessLevel.PUBLIC)
+@Setter(AccessLevel.PUBLIC)
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ShareItServerResilienceProperties {
+    // одновременных запросов одного клиента и ожидание свободного места, дальше - 503
+    private int maxConcurrentCalls = 50;
+    private Duration maxWait = Duration.ofMillis(50);
+    // цепь размыкается, когда среди последних slidingWindowSize запросов (не меньше minimumCalls)
+    // доля ошибок достигает failureRateThreshold процентов
+    private int failureRateThreshold = 50;
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    // время в разомкнутом состоянии и число пробных запросов после него
+    private Duration openDuration = Duration.ofSeconds(10);
+    private int halfOpenCalls = 3;
+    private Map<String, Client> clients = new HashMap<>();
+
+    @Getter(AccessLevel.PUBLIC)
+    @Setter(AccessLevel.PUBLIC)
+    public static class Client {
+        private Integer maxConcurrentCalls;
+        // таймауты клиента вместо shareit-server.pool.connect-timeout и read-timeout
+        private Duration connectTimeout;
+        private Duration readTimeout;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Запрос к микросервису shareIt Service не выполнен: цепь разомкнута, превышено число одновременных
+ * запросов клиента или сервер не ответил вовремя. Клиенту шлюза возвращается 503 с заголовком Retry-After.
+ */
+
+public class ShareItServerUnavailableException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public ShareItServerUnavailableException(String reason, Duration retryAfter, @Nullable Throwable cause) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        // Retry-After в целых секундах, не меньше одной
+        long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(seconds, 1)));
+        return headers;
+    }
+}
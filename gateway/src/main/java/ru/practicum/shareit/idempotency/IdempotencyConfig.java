@@ -0,0 +1,25 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрация фильтра Idempotency-Key для всех путей шлюза: POST в API шлюза только создает объекты
+ * (Item, Booking, ItemRequest, Comment, User и их пакеты), поэтому повтор любого из них безопасно дедуплицировать.
+ */
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, properties));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
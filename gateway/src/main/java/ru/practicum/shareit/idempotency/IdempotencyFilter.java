@@ -0,0 +1,178 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Обработка POST-запросов с заголовком Idempotency-Key.
+ * Ключ действует в пределах пользователя X-Sharer-User-Id. Первый запрос с ключом резервирует его
+ * и передается серверу, успешный (2xx) ответ буферизуется и сохраняется в IdempotencyStore.
+ * Повторный запрос с тем же ключом и тем же методом, путем и телом получает сохраненный ответ
+ * с заголовком Idempotent-Replayed: true без обращения к серверу.
+ * Ответ 409, если запрос с тем же ключом еще выполняется, 422 - если ключ использован для другого запроса.
+ * Неуспешный ответ не сохраняется, резерв ключа снимается, и клиент может повторить запрос с тем же ключом.
+ * Запросы без заголовка обрабатываются как раньше, тело ответа сервера копируется клиенту потоком.
+ */
+
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = storeKey(request, idempotencyKey);
+        String fingerprint = fingerprint(cachedRequest);
+
+        Optional<IdempotencyRecord> existing = store.reserve(key, fingerprint, properties.getLockTimeout());
+        if (existing.isPresent()) {
+            reject(existing.get(), fingerprint, idempotencyKey, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(cachedRequest, cachingResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        if (HttpStatusCode.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+            store.complete(key, fingerprint, new IdempotentResponse(cachingResponse.getStatus(),
+                    cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()), properties.getTtl());
+        } else {
+            store.release(key);
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private static void reject(IdempotencyRecord record, String fingerprint, String idempotencyKey,
+                               HttpServletResponse response) throws IOException {
+        if (!record.fingerprint().equals(fingerprint)) {
+            log.warn("Idempotency-Key {} повторно использован для другого запроса", idempotencyKey);
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Idempotency-Key was already used for a different request");
+        } else if (!record.isCompleted()) {
+            log.warn("Запрос с Idempotency-Key {} еще выполняется", idempotencyKey);
+            response.sendError(HttpStatus.CONFLICT.value(), "Request with this Idempotency-Key is in progress");
+        } else {
+            log.info("Повтор запроса с Idempotency-Key {}, возвращен сохраненный ответ", idempotencyKey);
+            IdempotentResponse replay = record.response();
+            response.setStatus(replay.status());
+            if (replay.contentType() != null) {
+                response.setContentType(replay.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(replay.body().length);
+            response.getOutputStream().write(replay.body());
+        }
+    }
+
+    private static String storeKey(HttpServletRequest request, String idempotencyKey) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        return (userId == null ? "" : userId) + ":" + idempotencyKey;
+    }
+
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // тело запроса читается целиком для отпечатка и затем отдается контроллеру из памяти
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
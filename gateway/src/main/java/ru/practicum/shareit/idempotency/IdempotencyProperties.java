@@ -0,0 +1,37 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки обработки заголовка Idempotency-Key, префикс shareit.idempotency.
+ */
+
+@Getter(AccessLevel.PUBLIC)
+@Setter(AccessLevel.PUBLIC)
+@ConfigurationProperties(prefix = "shareit.idempotency")
+public class IdempotencyProperties {
+    // время хранения ответа, в течение которого повтор запроса не доходит до сервера
+    private Duration ttl = Duration.ofHours(24);
+    // резерв ключа за выполняющимся запросом, должен превышать таймаут ответа сервера
+    private Duration lockTimeout = Duration.ofMinutes(1);
+    // максимальное число ключей в хранилище in-memory
+    private long maxKeys = 100_000;
+    private final Jdbc jdbc = new Jdbc();
+
+    /**
+     * Подключение к базе данных хранилища jdbc.
+     */
+    @Getter(AccessLevel.PUBLIC)
+    @Setter(AccessLevel.PUBLIC)
+    public static class Jdbc {
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Запись хранилища ключей: отпечаток запроса и ответ на него.
+ * response == null, пока запрос, зарезервировавший ключ, еще выполняется.
+ */
+
+public record IdempotencyRecord(String fingerprint, @Nullable IdempotentResponse response, Instant expiresAt) {
+
+    public boolean isCompleted() {
+        return response != null;
+    }
+}
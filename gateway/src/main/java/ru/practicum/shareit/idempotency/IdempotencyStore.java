@@ -0,0 +1,30 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей Idempotency-Key и сохраненных по ним ответов.
+ * Реализация выбирается свойством shareit.idempotency.store:
+ * in-memory (по умолчанию) - ограниченный по размеру кэш в памяти одного экземпляра шлюза;
+ * jdbc - таблица idempotency_keys в базе данных, общая для нескольких экземпляров шлюза.
+ */
+
+public interface IdempotencyStore {
+
+    /**
+     * Атомарно резервирует ключ за выполняемым запросом на время lockTimeout.
+     * Возвращает запись, если ключ уже занят запросом в работе или сохраненным ответом, иначе пустой Optional.
+     */
+    Optional<IdempotencyRecord> reserve(String key, String fingerprint, Duration lockTimeout);
+
+    /**
+     * Сохраняет ответ на запрос, зарезервировавший ключ, на время ttl.
+     */
+    void complete(String key, String fingerprint, IdempotentResponse response, Duration ttl);
+
+    /**
+     * Снимает резерв ключа, если запрос не завершился успешно, чтобы клиент мог повторить его с тем же ключом.
+     */
+    void release(String key);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Буферизованный ответ шлюза, который возвращается повторным запросам с тем же Idempotency-Key.
+ */
+
+public record IdempotentResponse(int status, @Nullable String contentType, byte[] body) {
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей в памяти экземпляра шлюза.
+ * Число ключей ограничено shareit.idempotency.max-keys, запись удаляется по истечении expiresAt:
+ * резерв - через lock-timeout, сохраненный ответ - через ttl.
+ * Число ключей и вытеснения публикуются через actuator (cache.size, cache.evictions с тегом cache=idempotency-keys).
+ */
+
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore, MeterBinder {
+    private static final String CACHE_NAME = "idempotency-keys";
+
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfter(new ExpiresAt())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, records, CACHE_NAME);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String key, String fingerprint, Duration lockTimeout) {
+        IdempotencyRecord reservation = new IdempotencyRecord(fingerprint, null, Instant.now().plus(lockTimeout));
+        return Optional.ofNullable(records.asMap().putIfAbsent(key, reservation));
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, IdempotentResponse response, Duration ttl) {
+        records.put(key, new IdempotencyRecord(fingerprint, response, Instant.now().plus(ttl)));
+    }
+
+    @Override
+    public void release(String key) {
+        records.invalidate(key);
+    }
+
+    // срок жизни записи задается ее expiresAt и пересчитывается при каждой записи, чтение его не продлевает
+    private static class ExpiresAt implements Expiry<String, IdempotencyRecord> {
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), record.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, record, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей в таблице idempotency_keys (db/idempotency-schema.sql), общее для нескольких экземпляров шлюза.
+ * Ключ резервируется вставкой строки: первичный ключ idempotency_key гарантирует,
+ * что из одновременных запросов с одним ключом на сервер уйдет только один.
+ * Сроки хранения - миллисекунды epoch в столбце expires_at, не зависят от часового пояса экземпляров.
+ * Просроченные строки удаляются при резервировании того же ключа и периодически фоновой задачей.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final RowMapper<IdempotencyRecord> RECORD_MAPPER = (rs, rowNum) -> {
+        int status = rs.getInt("status");
+        IdempotentResponse response = rs.wasNull()
+                ? null
+                : new IdempotentResponse(status, rs.getString("content_type"), rs.getBytes("body"));
+        return new IdempotencyRecord(rs.getString("fingerprint"), response,
+                Instant.ofEpochMilli(rs.getLong("expires_at")));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String key, String fingerprint, Duration lockTimeout) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, expires_at) " +
+                    "VALUES (?, ?, ?)", key, fingerprint, now + lockTimeout.toMillis());
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            List<IdempotencyRecord> records = jdbcTemplate.query("SELECT fingerprint, status, content_type, body, " +
+                    "expires_at FROM idempotency_keys WHERE idempotency_key = ?", RECORD_MAPPER, key);
+            // строка могла быть удалена между вставкой и чтением, тогда ключ считается занятым еще выполняющимся
+            // запросом: клиент получит отказ и повторит запрос
+            return Optional.of(records.isEmpty()
+                    ? new IdempotencyRecord(fingerprint, null, Instant.ofEpochMilli(now).plus(lockTimeout))
+                    : records.getFirst());
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, IdempotentResponse response, Duration ttl) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?, expires_at = ? " +
+                        "WHERE idempotency_key = ? AND fingerprint = ?", response.status(), response.contentType(),
+                response.body(), System.currentTimeMillis() + ttl.toMillis(), key, fingerprint);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.jdbc.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?",
+                System.currentTimeMillis());
+        log.debug("Удалено просроченных ключей Idempotency-Key: {}", purged);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.idempotency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Подключение шлюза к базе данных для хранилища ключей jdbc.
+ * Шлюз не использует базу данных для других целей, поэтому автоконфигурация DataSource отключена
+ * (ShareItGateway), а пул соединений создается только в режиме shareit.idempotency.store=jdbc
+ * из свойств shareit.idempotency.jdbc.*. Таблица создается при запуске, если ее еще нет.
+ */
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStoreConfig {
+
+    @Bean
+    public DataSource idempotencyDataSource(IdempotencyProperties properties) {
+        IdempotencyProperties.Jdbc jdbc = properties.getJdbc();
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(jdbc.getUrl())
+                .username(jdbc.getUsername())
+                .password(jdbc.getPassword())
+                .build();
+        dataSource.setPoolName("idempotency");
+        dataSource.setMaximumPoolSize(jdbc.getMaxPoolSize());
+        DatabasePopulatorUtils.execute(
+                new ResourceDatabasePopulator(new ClassPathResource("db/idempotency-schema.sql")), dataSource);
+        return dataSource;
+    }
+}
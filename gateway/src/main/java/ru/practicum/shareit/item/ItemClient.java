@@ -4,14 +4,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,20 +24,27 @@ import java.util.Map;
  * необходимый набор методов для взаимодействия с REST API.
  * Формирует корректные запросы и обрабатывает ответы от микросервиса shareIt Service
  * по объектам Item, Comment, путь /items, HTTP-запросы - GET, POST, PATCH
- * Для постоения RestTemplate используется реализация от HttpComponents
+ * RestTemplate строится с HTTP-клиентом, выбранным в ShareItServerClientConfig
+ * Результат поиска не зависит от пользователя, поэтому поиск отправляется без X-Sharer-User-Id
+ * и одинаковые параллельные запросы поиска разных пользователей объединяются в один.
  */
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String CLIENT_NAME = "items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      EtagCache etagCache, RequestCoalescer requestCoalescer,
+                      ShareItServerResilience resilience) {
         super(
-                builder
+                resilience.applyTimeouts(CLIENT_NAME, builder)
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                etagCache,
+                requestCoalescer,
+                resilience.guard(CLIENT_NAME)
         );
     }
 
@@ -40,21 +52,43 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemCreateDto);
     }
 
+    public ResponseEntity<Object> addItems(Long userId, List<ItemCreateDto> itemCreateDtos) {
+        return post("/batch", userId, itemCreateDtos);
+    }
+
     public ResponseEntity<Object> updateItem(long userId, Long itemId, ItemUpdateDto itemUpdateDto) {
         return patch("/" + itemId, userId, itemUpdateDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> getItemById(Long userId, Long itemId, String ifNoneMatch) {
+        return getRevalidated("/" + itemId, userId, ifNoneMatch);
+    }
+
+    public ResponseEntity<Object> getItemsByIds(Long userId, List<Long> itemIds) {
+        return getByIds("", userId, itemIds);
     }
 
     public ResponseEntity<Object> getAllItemsByOwnerId(Long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> getItemsByTextQuery(Long userId, String text) {
-        Map<String, Object> params = Map.of("text", text);
-        return get("/search" + "?text={text}", userId, params);
+    public ResponseEntity<Object> getItemsByTextQuery(String text, LocalDateTime availableFrom,
+                                                      LocalDateTime availableTo) {
+        if (availableFrom == null && availableTo == null) {
+            Map<String, Object> params = Map.of("text", text);
+            return getCoalesced("/search" + "?text={text}", null, params);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("text", text);
+        params.put("availableFrom", availableFrom);
+        params.put("availableTo", availableTo);
+        return getCoalesced("/search" + "?text={text}&availableFrom={availableFrom}&availableTo={availableTo}",
+                null, params);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> params = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, params);
     }
 
     public ResponseEntity<Object> addComment(Long itemId, Long authorId, CommentCreateDto commentCreateDto) {
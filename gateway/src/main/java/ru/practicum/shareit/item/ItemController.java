@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,6 +20,11 @@ import java.util.List;
  * Базовый путь - /items.
  * Принимает, проводит валидацию сообщений от пользователей. Корректные запросы отправляются
  * микросервису shareIt Service и от него возвращаются запрошенные данные для пользователей.
+ * Владелец может добавить до 500 Item одним запросом POST /items/batch.
+ * До 100 Item читаются одним запросом GET /items?ids=1,2,3 вместо отдельных GET /items/{itemId}.
+ * Занятость вещи на интервале возвращает GET /items/{itemId}/availability?from=...&to=...
+ * Поиск принимает необязательный интервал availableFrom, availableTo для исключения забронированных вещей.
+ * GET /items/{itemId} поддерживает условные запросы If-None-Match, ответ сервера перепроверяется через EtagCache.
  */
 
 @Controller
@@ -23,62 +32,105 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/items")
 public class ItemController {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_IDS = 100;
+
     private final ItemClient itemClient;
 
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestBody @Valid ItemCreateDto item,
                                           @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление Item, User ID: {}", userId);
+        log.debug("Запрос на добавление Item, User ID: {}", userId);
         ResponseEntity<Object> re = itemClient.addItem(userId, item);
-        log.info("Успешно добавлен Item: {}", re.getBody());
+        log.info("Успешно добавлен Item, статус ответа: {}", re.getStatusCode());
+        return re;
+    }
+
+    @PostMapping(path = "/batch")
+    public ResponseEntity<Object> addItems(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid ItemCreateDto> items,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на добавление {} Item, User ID: {}", items.size(), userId);
+        ResponseEntity<Object> re = itemClient.addItems(userId, items);
+        log.info("Успешно добавлены Item, статус ответа: {}", re.getStatusCode());
         return re;
     }
 
     @PatchMapping(path = "/{itemId}")
     public ResponseEntity<Object> updateItem(@PathVariable Long itemId, @RequestBody ItemUpdateDto item,
                                              @RequestHeader(name = "X-Sharer-User-Id") long userId) {
-        log.info("Запрос на обновление Item c ID: {}", itemId);
+        log.debug("Запрос на обновление Item c ID: {}", itemId);
         ResponseEntity<Object> re = itemClient.updateItem(userId, itemId, item);
-        log.info("Успешно обновлен Item: {}", re.getBody());
+        log.info("Успешно обновлен Item, статус ответа: {}", re.getStatusCode());
         return re;
     }
 
     @GetMapping(path = "/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
-                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение Item по ID: {}, user ID: {}", itemId, userId);
-        ResponseEntity<Object> re = itemClient.getItemById(userId, itemId);
-        log.info("Успешно получен Item: {}", re.getBody());
+                                              @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                              @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
+        log.debug("Запрос на получение Item по ID: {}, user ID: {}", itemId, userId);
+        ResponseEntity<Object> re = itemClient.getItemById(userId, itemId, ifNoneMatch);
+        log.info("Успешно получен Item, статус ответа: {}", re.getStatusCode());
+        return re;
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getItemsByIds(
+            @RequestParam(name = "ids") @Size(min = 1, max = MAX_IDS) List<Long> ids,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на получение {} Items по списку ID, user ID: {}", ids.size(), userId);
+        ResponseEntity<Object> re = itemClient.getItemsByIds(userId, ids);
+        log.info("Успешно получены Items по списку ID, статус ответа: {}", re.getStatusCode());
         return re;
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllItemsByOwnerId(@RequestHeader(name = "X-Sharer-User-Id") Long ownerId) {
-        log.info("Запрос на получение списка всех Items по owner ID: {}", ownerId);
+        log.debug("Запрос на получение списка всех Items по owner ID: {}", ownerId);
         ResponseEntity<Object> re = itemClient.getAllItemsByOwnerId(ownerId);
         log.info("Успешно получен список всех Items по owner ID: {}", ownerId);
         return re;
     }
 
     @GetMapping(path = "/search")
-    public ResponseEntity<Object> getItemsByTextQuery(@RequestParam(name = "text") String text,
-                                                      @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение списка Items по запросу: {}", text);
+    public ResponseEntity<Object> getItemsByTextQuery(
+            @RequestParam(name = "text") String text,
+            @RequestParam(name = "availableFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableFrom,
+            @RequestParam(name = "availableTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableTo,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на получение списка Items по запросу: {}, свободных с {} по {}",
+                text, availableFrom, availableTo);
         if (text.isBlank()) {
             return new ResponseEntity<>(List.of(), HttpStatus.OK);
         }
-        ResponseEntity<Object> re = itemClient.getItemsByTextQuery(userId, text);
+        ResponseEntity<Object> re = itemClient.getItemsByTextQuery(text, availableFrom, availableTo);
         log.info("Успешно получен список Items по запросу: {}", text);
         return re;
     }
 
+    @GetMapping(path = "/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на получение занятости Item с ID: {} с {} по {}", itemId, from, to);
+        ResponseEntity<Object> re = itemClient.getItemAvailability(userId, itemId, from, to);
+        log.info("Успешно получена занятость Item, статус ответа: {}", re.getStatusCode());
+        return re;
+    }
+
     @PostMapping(path = "/{itemId}/comment")
     public ResponseEntity<Object> addComment(@PathVariable Long itemId,
                                              @RequestBody @Valid CommentCreateDto comment,
                                              @RequestHeader(name = "X-Sharer-User-Id") Long authorId) {
-        log.info("Запрос на добавление Comment. Item ID: {}, author ID: {}", itemId, authorId);
+        log.debug("Запрос на добавление Comment. Item ID: {}, author ID: {}", itemId, authorId);
         ResponseEntity<Object> re = itemClient.addComment(itemId, authorId, comment);
-        log.info("Успешно добавлен Comment: {}", re.getBody());
+        log.info("Успешно добавлен Comment, статус ответа: {}", re.getStatusCode());
         return re;
     }
 }
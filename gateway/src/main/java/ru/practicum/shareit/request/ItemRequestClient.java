@@ -3,32 +3,46 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * ItemRequestClient - класс, наследующий класс BaseClient и использует
  * необходимый набор методов для взаимодействия с REST API.
  * Формирует корректные запросы и обрабатывает ответы от микросервиса shareIt Service
  * по объекту ItemRequest, путь /requests, HTTP-запросы - GET, POST
- * Для постоения RestTemplate используется реализация от HttpComponents
+ * Запросы других пользователей запрашиваются целиком, постранично по токену продолжения cursor
+ * или потоком application/x-ndjson
+ * RestTemplate строится с HTTP-клиентом, выбранным в ShareItServerClientConfig
  */
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    private static final String CLIENT_NAME = "requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             EtagCache etagCache, RequestCoalescer requestCoalescer,
+                             ShareItServerResilience resilience) {
         super(
-                builder
+                resilience.applyTimeouts(CLIENT_NAME, builder)
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                etagCache,
+                requestCoalescer,
+                resilience.guard(CLIENT_NAME)
         );
     }
 
@@ -36,15 +50,34 @@ public class ItemRequestClient extends BaseClient {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByOwnerId(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllItemRequestsByOwnerId(Long userId, String ifNoneMatch) {
+        return getRevalidated("", userId, ifNoneMatch);
     }
 
     public ResponseEntity<Object> getAllItemRequestsOfOtherUsers(Long userId) {
         return get("/all", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public ResponseEntity<Object> getAllItemRequestsOfOtherUsers(Long userId, String cursor, Integer size) {
+        StringBuilder query = new StringBuilder("/all");
+        Map<String, Object> params = new HashMap<>();
+        if (cursor != null) {
+            query.append(params.isEmpty() ? "?" : "&").append("cursor={cursor}");
+            params.put("cursor", cursor);
+        }
+        if (size != null) {
+            query.append(params.isEmpty() ? "?" : "&").append("size={size}");
+            params.put("size", size);
+        }
+        return get(query.toString(), userId, params);
+    }
+
+    public ResponseEntity<Object> streamAllItemRequestsOfOtherUsers(Long userId) {
+        // ошибки сервер возвращает в application/json
+        return get("/all", userId, null, List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+    }
+
+    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId, String ifNoneMatch) {
+        return getRevalidated("/" + requestId, userId, ifNoneMatch);
     }
 }
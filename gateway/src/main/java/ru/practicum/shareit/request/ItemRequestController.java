@@ -1,8 +1,12 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +17,10 @@ import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
  * Базовый путь - /requests.
  * Принимает, проводит валидацию сообщений от пользователей. Корректные запросы отправляются
  * микросервису shareIt Service и от него возвращаются запрошенные данные для пользователей.
+ * GET /requests и GET /requests/{requestId} поддерживают условные запросы If-None-Match.
+ * Запросы других пользователей (GET /requests/all) выдаются постранично при указании параметров size и/или cursor,
+ * токен следующей страницы возвращается в заголовке ответа X-Next-Cursor;
+ * с Accept: application/x-ndjson список передается потоком, по одному запросу в строке.
  */
 
 @Controller
@@ -23,41 +31,63 @@ import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
         produces = "application/json"
 )
 public class ItemRequestController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<Object> addItemRequest(@RequestBody @Valid ItemRequestCreateDto itemRequest,
                                                  @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление ItemRequest: {}, user ID: {}", itemRequest, userId);
+        log.debug("Запрос на добавление ItemRequest: {}, user ID: {}", itemRequest, userId);
         ResponseEntity<Object> re = itemRequestClient.addItemRequest(userId, itemRequest);
-        log.info("Успешно добавлен ItemRequest: {}, user ID: {}", re.getBody(), userId);
+        log.info("Успешно добавлен ItemRequest, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
         return re;
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllItemRequestsByOwnerId(
-            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение ItemRequests пользователя с ID: {}", userId);
-        ResponseEntity<Object> re = itemRequestClient.getAllItemRequestsByOwnerId(userId);
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Запрос на получение ItemRequests пользователя с ID: {}", userId);
+        ResponseEntity<Object> re = itemRequestClient.getAllItemRequestsByOwnerId(userId, ifNoneMatch);
         log.info("Успешно получены ItemRequests пользователя с ID: {}", userId);
         return re;
     }
 
     @GetMapping(path = "/all")
     public ResponseEntity<Object> getAllItemRequestsOfOtherUsers(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение всех ItemRequests кроме пользователя с ID: {}", userId);
-        ResponseEntity<Object> re = itemRequestClient.getAllItemRequestsOfOtherUsers(userId);
+        log.debug("Запрос на получение всех ItemRequests кроме пользователя с ID: {}", userId);
+        ResponseEntity<Object> re;
+        if (cursor == null && size == null) {
+            re = itemRequestClient.getAllItemRequestsOfOtherUsers(userId);
+        } else {
+            re = itemRequestClient.getAllItemRequestsOfOtherUsers(userId, cursor, size);
+        }
         log.info("Успешно получены все ItemRequests кроме пользователя с ID: {}", userId);
         return re;
     }
 
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> streamAllItemRequestsOfOtherUsers(
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на потоковое получение всех ItemRequests кроме пользователя с ID: {}", userId);
+        ResponseEntity<Object> re = itemRequestClient.streamAllItemRequestsOfOtherUsers(userId);
+        log.info("Успешно получен поток ItemRequests кроме пользователя с ID: {}, статус ответа: {}",
+                userId, re.getStatusCode());
+        return re;
+    }
+
     @GetMapping(path = "/{requestId}")
     public ResponseEntity<Object> getItemRequestById(@PathVariable Long requestId,
-                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение ItemRequest по ID: {}, user ID: {}", requestId, userId);
-        ResponseEntity<Object> re = itemRequestClient.getItemRequestById(userId, requestId);
-        log.info("Успешно получен ItemRequest: {}, user ID: {}", re.getBody(), userId);
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                     String ifNoneMatch) {
+        log.debug("Запрос на получение ItemRequest по ID: {}, user ID: {}", requestId, userId);
+        ResponseEntity<Object> re = itemRequestClient.getItemRequestById(userId, requestId, ifNoneMatch);
+        log.info("Успешно получен ItemRequest, статус ответа: {}, user ID: {}", re.getStatusCode(), userId);
         return re;
     }
 }
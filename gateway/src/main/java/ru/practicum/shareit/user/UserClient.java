@@ -4,32 +4,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ShareItServerResilience;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.List;
+
 /**
  * UserClient - класс, наследующий класс BaseClient и использует
  * необходимый набор методов для взаимодействия с REST API.
  * Формирует корректные запросы и обрабатывает ответы от микросервиса shareIt Service
  * по объекту User, путь /users, HTTP-запросы - GET, POST, PATCH, DELETE
- * Для постоения RestTemplate используется реализация от HttpComponents
+ * RestTemplate строится с HTTP-клиентом, выбранным в ShareItServerClientConfig
  */
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private static final String CLIENT_NAME = "users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      EtagCache etagCache, RequestCoalescer requestCoalescer,
+                      ShareItServerResilience resilience) {
         super(
-                builder
+                resilience.applyTimeouts(CLIENT_NAME, builder)
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .build(),
+                etagCache,
+                requestCoalescer,
+                resilience.guard(CLIENT_NAME)
         );
     }
 
@@ -37,6 +46,10 @@ public class UserClient extends BaseClient {
         return post("", userCreateDto);
     }
 
+    public ResponseEntity<Object> addUsers(List<UserCreateDto> userCreateDtos) {
+        return post("/batch", userCreateDtos);
+    }
+
     public ResponseEntity<Object> updateUser(Long userId, UserUpdateDto userUpdateDto) {
         return patch("/" + userId, userUpdateDto);
     }
@@ -45,8 +58,12 @@ public class UserClient extends BaseClient {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
-        return get("/" + userId);
+    public ResponseEntity<Object> getUserById(Long userId, String ifNoneMatch) {
+        return getRevalidated("/" + userId, null, ifNoneMatch);
+    }
+
+    public ResponseEntity<Object> getUsersByIds(List<Long> userIds) {
+        return getByIds("", null, userIds);
     }
 
     public ResponseEntity<Object> getAllUsers() {
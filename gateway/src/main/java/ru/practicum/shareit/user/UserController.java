@@ -1,19 +1,25 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.List;
+
 /**
  * UserController — класс-контроллер, предоставляющий REST API для работы с данными типа User.
  * Базовый путь - /users.
  * Принимает, проводит валидацию сообщений от пользователей. Корректные запросы отправляются
  * микросервису shareIt Service и от него возвращаются запрошенные данные для пользователей.
+ * GET /users/{userId} поддерживает условные запросы If-None-Match.
+ * GET /users?ids=1,2,3 возвращает до 100 пользователей одним запросом к серверу.
  */
 
 @Controller
@@ -24,22 +30,37 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
         produces = "application/json"
 )
 public class UserController {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_IDS = 100;
+
     private final UserClient userClient;
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<Object> addUser(@RequestBody @Valid UserCreateDto user) {
-        log.info("Запрос на добавление User");
+        log.debug("Запрос на добавление User");
         ResponseEntity<Object> re = userClient.addUser(user);
         log.info("Успешно добавлен User");
         return re;
     }
 
+    @PostMapping(
+            path = "/batch",
+            consumes = "application/json"
+    )
+    public ResponseEntity<Object> addUsers(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid UserCreateDto> users) {
+        log.debug("Запрос на добавление {} User", users.size());
+        ResponseEntity<Object> re = userClient.addUsers(users);
+        log.info("Успешно добавлены User, статус ответа: {}", re.getStatusCode());
+        return re;
+    }
+
     @PatchMapping(
             path = "/{userId}",
             consumes = "application/json"
     )
     public ResponseEntity<Object> updateUser(@PathVariable Long userId, @RequestBody @Valid UserUpdateDto user) {
-        log.info("Запрос на обновление User c ID: {}", userId);
+        log.debug("Запрос на обновление User c ID: {}", userId);
         ResponseEntity<Object> re = userClient.updateUser(userId, user);
         log.info("Успешно обновлен User c ID: {}", userId);
         return re;
@@ -47,23 +68,34 @@ public class UserController {
 
     @DeleteMapping(path = "/{userId}")
     public ResponseEntity<Object> removeUserById(@PathVariable Long userId) {
-        log.info("Запрос на удаление User по id: {}", userId);
+        log.debug("Запрос на удаление User по id: {}", userId);
         ResponseEntity<Object> re = userClient.removeUserById(userId);
         log.info("Успешно удален User с id: {}", userId);
         return re;
     }
 
     @GetMapping(path = "/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
-        log.info("Запрос на получение User по id: {}", userId);
-        ResponseEntity<Object> re = userClient.getUserById(userId);
+    public ResponseEntity<Object> getUserById(@PathVariable Long userId,
+                                              @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
+        log.debug("Запрос на получение User по id: {}", userId);
+        ResponseEntity<Object> re = userClient.getUserById(userId, ifNoneMatch);
         log.info("Успешно получен User с id: {}", userId);
         return re;
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<Object> getUsersByIds(
+            @RequestParam(name = "ids") @Size(min = 1, max = MAX_IDS) List<Long> ids) {
+        log.debug("Запрос на получение {} пользователей по списку id", ids.size());
+        ResponseEntity<Object> re = userClient.getUsersByIds(ids);
+        log.info("Успешно получены пользователи по списку id, статус ответа: {}", re.getStatusCode());
+        return re;
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllUsers() {
-        log.info("Запрос на получение списка всех пользователей");
+        log.debug("Запрос на получение списка всех пользователей");
         ResponseEntity<Object> re = userClient.getAllUsers();
         log.info("Список всех пользователей успешно сформирован");
         return re;
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка ключа объединения запросов BaseClient на локальной заглушке shareIt Service:
+ * заглушка задерживает ответы до разрешения теста и возвращает в теле X-Sharer-User-Id
+ * и If-None-Match запроса, поэтому видно, какой ответ получил каждый вызывающий.
+ */
+
+class BaseClientCoalescingTest {
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private CloseableHttpClient httpClient;
+    private SimpleMeterRegistry registry;
+    private BaseClient items;
+    private volatile CountDownLatch itemsReceived;
+    private final CountDownLatch itemsRespond = new CountDownLatch(1);
+    private final AtomicInteger itemsCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        itemsReceived = new CountDownLatch(0);
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/items", this::handleItems);
+        stub.start();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(10)
+                        .setMaxConnPerRoute(10)
+                        .build())
+                .build();
+        RestTemplate rest = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(
+                "http://127.0.0.1:" + stub.getAddress().getPort() + "/items"));
+        registry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(16);
+        coalescer.bindTo(registry);
+        items = new BaseClient(rest, null, coalescer);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void getCoalesced_whenSameSearchRequestedConcurrently_thenSingleServerCall() throws Exception {
+        Map<String, Object> parameters = Map.of("text", "drill");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<Object>> first =
+                    executor.submit(() -> items.getCoalesced("/search?text={text}", null, parameters));
+            Future<ResponseEntity<Object>> second =
+                    executor.submit(() -> items.getCoalesced("/search?text={text}", null, parameters));
+            awaitCount("shared", 1);
+            itemsRespond.countDown();
+
+            assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertArrayEquals(body(first.get()), body(second.get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(1, itemsCalls.get());
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    void getRevalidated_whenUsersDiffer_thenDoNotMerge() throws Exception {
+        itemsReceived = new CountDownLatch(2);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<Object>> owner = executor.submit(() -> items.getRevalidated("/1", 1L, null));
+            Future<ResponseEntity<Object>> booker = executor.submit(() -> items.getRevalidated("/1", 2L, null));
+            assertTrue(itemsReceived.await(5, TimeUnit.SECONDS));
+            itemsRespond.countDown();
+
+            assertEquals("1 null", bodyText(owner.get(5, TimeUnit.SECONDS)));
+            assertEquals("2 null", bodyText(booker.get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(2, itemsCalls.get());
+        assertEquals(0, count("shared"));
+    }
+
+    @Test
+    void getRevalidated_whenIfNoneMatchDiffers_thenDoNotMerge() throws Exception {
+        itemsReceived = new CountDownLatch(2);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<Object>> first = executor.submit(() -> items.getRevalidated("/1", 1L, "\"1\""));
+            Future<ResponseEntity<Object>> second = executor.submit(() -> items.getRevalidated("/1", 1L, "\"2\""));
+            assertTrue(itemsReceived.await(5, TimeUnit.SECONDS));
+            itemsRespond.countDown();
+
+            assertEquals("1 \"1\"", bodyText(first.get(5, TimeUnit.SECONDS)));
+            assertEquals("1 \"2\"", bodyText(second.get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(2, itemsCalls.get());
+        assertEquals(0, count("shared"));
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        itemsCalls.incrementAndGet();
+        itemsReceived.countDown();
+        try {
+            if (!itemsRespond.await(5, TimeUnit.SECONDS)) {
+                exchange.close();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        HttpHeaders request = new HttpHeaders();
+        exchange.getRequestHeaders().forEach(request::addAll);
+        byte[] body = (request.getFirst("X-Sharer-User-Id") + " " + request.getFirst(HttpHeaders.IF_NONE_MATCH))
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "text/plain");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        }
+    }
+
+    private double count(String result) {
+        return registry.get(RequestCoalescer.COUNTER_NAME).tag("result", result).functionCounter().count();
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + expected + " " + result + " calls");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static byte[] body(ResponseEntity<Object> response) {
+        return (byte[]) response.getBody();
+    }
+
+    private static String bodyText(ResponseEntity<Object> response) {
+        return new String(body(response), StandardCharsets.UTF_8);
+    }
+}
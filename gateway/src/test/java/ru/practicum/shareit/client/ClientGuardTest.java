@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверка ClientGuard для ответов, полученных от сервера, но не прочитанных: такой ответ закрывается,
+ * чтобы соединение вернулось в пул, а место в bulkhead освобождается.
+ */
+
+class ClientGuardTest {
+    private final ClientGuard guard = new ClientGuard("items", 2, Duration.ZERO,
+            new CircuitBreaker(50, 4, 4, Duration.ofSeconds(10), 1));
+
+    @Test
+    void execute_whenReadingStatusFails_thenCloseResponseAndThrowUnavailable() throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        IOException failure = new IOException("Connection reset");
+        when(response.getStatusCode()).thenThrow(failure);
+
+        ShareItServerUnavailableException e = assertThrows(ShareItServerUnavailableException.class,
+                () -> guard.execute("GET /items/1", () -> response));
+
+        assertSame(failure, e.getCause());
+        verify(response).close();
+        assertEquals(0, guard.getActiveCalls());
+    }
+
+    @Test
+    void execute_whenReadingStatusThrowsRuntimeException_thenCloseResponseAndRethrow() throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        IllegalArgumentException failure = new IllegalArgumentException("Invalid status code");
+        when(response.getStatusCode()).thenThrow(failure);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> guard.execute("GET /items/1", () -> response));
+
+        assertSame(failure, e);
+        verify(response).close();
+        assertEquals(0, guard.getActiveCalls());
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка RequestCoalescer: запрос к серверу заменен Supplier, который считает вызовы
+ * и ждет разрешения теста, пока остальные вызывающие не присоединятся к нему.
+ */
+
+class RequestCoalescerTest {
+    private static final int CALLERS = 20;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger serverCalls = new AtomicInteger();
+    private final CountDownLatch serverResponds = new CountDownLatch(1);
+
+    @Test
+    void execute_whenCallersShareKey_thenSingleServerCallAndSameResponse() throws Exception {
+        RequestCoalescer coalescer = coalescer(16);
+        RequestCoalescer.SharedResponse response = response();
+
+        List<RequestCoalescer.SharedResponse> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<RequestCoalescer.SharedResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> coalescer.execute("GET /items/1", blockingServer(response))));
+            }
+            awaitCount("shared", CALLERS - 1);
+            serverResponds.countDown();
+            for (Future<RequestCoalescer.SharedResponse> future : futures) {
+                results.add(future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, serverCalls.get());
+        results.forEach(result -> assertSame(response, result));
+        assertEquals(1, count("executed"));
+        assertEquals(CALLERS - 1, count("shared"));
+        assertEquals(0, count("bypassed"));
+        assertEquals(0, registry.get(RequestCoalescer.COUNTER_NAME + ".in.flight").gauge().value());
+    }
+
+    @Test
+    void execute_whenServerCallFails_thenEveryWaiterGetsExceptionAndKeyIsRemoved() throws Exception {
+        RequestCoalescer coalescer = coalescer(16);
+        IllegalStateException failure = new IllegalStateException("shareIt Server is unavailable");
+        Supplier<RequestCoalescer.SharedResponse> failingServer = () -> {
+            serverCalls.incrementAndGet();
+            await(serverResponds);
+            throw failure;
+        };
+
+        List<Future<RequestCoalescer.SharedResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> coalescer.execute("GET /items/1", failingServer)));
+            }
+            awaitCount("shared", CALLERS - 1);
+            serverResponds.countDown();
+        }
+
+        for (Future<RequestCoalescer.SharedResponse> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, serverCalls.get());
+        assertEquals(0, registry.get(RequestCoalescer.COUNTER_NAME + ".in.flight").gauge().value());
+
+        RequestCoalescer.SharedResponse response = response();
+        assertSame(response, coalescer.execute("GET /items/1", () -> response));
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void execute_whenTableIsFull_thenBypassCoalescingForNewKeys() throws Exception {
+        RequestCoalescer coalescer = coalescer(1);
+        RequestCoalescer.SharedResponse response = response();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<RequestCoalescer.SharedResponse> inFlight =
+                    executor.submit(() -> coalescer.execute("GET /items/1", blockingServer(response)));
+            awaitCount("executed", 1);
+
+            RequestCoalescer.SharedResponse other = response();
+            assertSame(other, coalescer.execute("GET /items/2", () -> other));
+            assertSame(other, coalescer.execute("GET /items/2", () -> other));
+
+            serverResponds.countDown();
+            assertSame(response, inFlight.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, count("executed"));
+        assertEquals(2, count("bypassed"));
+    }
+
+    @Test
+    void execute_whenMaxInFlightIsZero_thenEveryCallGoesToServer() throws Exception {
+        RequestCoalescer coalescer = coalescer(0);
+        RequestCoalescer.SharedResponse response = response();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<RequestCoalescer.SharedResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> coalescer.execute("GET /items/1", blockingServer(response))));
+            }
+            awaitCount("bypassed", CALLERS);
+            serverResponds.countDown();
+            for (Future<RequestCoalescer.SharedResponse> future : futures) {
+                future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(CALLERS, serverCalls.get());
+        assertEquals(0, count("executed"));
+        assertEquals(0, count("shared"));
+    }
+
+    @Test
+    void execute_whenSupplierThrowsError_thenRethrowSameError() {
+        RequestCoalescer coalescer = coalescer(16);
+        AssertionError error = new AssertionError("broken");
+
+        AssertionError thrown = assertThrows(AssertionError.class,
+                () -> coalescer.execute("GET /items/1", () -> {
+                    throw error;
+                }));
+
+        RequestCoalescer.SharedResponse response = response();
+        assertSame(error, thrown);
+        assertSame(response, coalescer.execute("GET /items/1", () -> response));
+    }
+
+    private RequestCoalescer coalescer(int maxInFlight) {
+        RequestCoalescer coalescer = new RequestCoalescer(maxInFlight);
+        coalescer.bindTo(registry);
+        return coalescer;
+    }
+
+    private Supplier<RequestCoalescer.SharedResponse> blockingServer(RequestCoalescer.SharedResponse response) {
+        return () -> {
+            serverCalls.incrementAndGet();
+            await(serverResponds);
+            return response;
+        };
+    }
+
+    private RequestCoalescer.SharedResponse response() {
+        return new RequestCoalescer.SharedResponse(HttpStatus.OK, HttpHeaders.EMPTY, new byte[0]);
+    }
+
+    private double count(String result) {
+        return registry.get(RequestCoalescer.COUNTER_NAME).tag("result", result).functionCounter().count();
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (count(result) < expected) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + expected + " " + result + " calls");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Server response was not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка ClientGuard на локальной заглушке shareIt Service, в ответы которой по пути /items
+ * вносятся задержка и ошибки 500: таймаут ответа, размыкание и замыкание цепи, bulkhead,
+ * не пропускающий лишние запросы медленного клиента, и независимость клиента /users от сбоев /items.
+ */
+
+class ShareItServerChaosTest {
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private CloseableHttpClient httpClient;
+    private volatile long itemsLatencyMillis;
+    private volatile int itemsStatus;
+    private volatile CountDownLatch itemsReceived;
+    private final AtomicInteger itemsCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        itemsLatencyMillis = 0;
+        itemsStatus = 200;
+        itemsReceived = new CountDownLatch(0);
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/items", this::handleItems);
+        stub.createContext("/users", exchange -> respond(exchange, 200));
+        stub.start();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(50)
+                        .setMaxConnPerRoute(50)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(READ_TIMEOUT.toMillis()))
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void get_whenServerRespondsSlowerThanReadTimeout_thenFailFastWith503() {
+        itemsLatencyMillis = 2000;
+        BaseClient items = client("/items", guard("items", 10, breaker(4, Duration.ofSeconds(10))));
+
+        long started = System.nanoTime();
+        ShareItServerUnavailableException e = assertThrows(ShareItServerUnavailableException.class,
+                () -> items.get("/1", 1L));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < itemsLatencyMillis);
+    }
+
+    @Test
+    void get_whenServerKeepsFailing_thenCircuitOpensAndRejectsWithoutCallingServer() throws IOException {
+        itemsStatus = 500;
+        ClientGuard guard = guard("items", 10, breaker(4, Duration.ofSeconds(10)));
+        BaseClient items = client("/items", guard);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, consume(items.get("/1", 1L)).getStatusCode());
+        }
+        ShareItServerUnavailableException e = assertThrows(ShareItServerUnavailableException.class,
+                () -> items.get("/1", 1L));
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+        assertEquals(4, itemsCalls.get());
+        assertEquals(1, guard.getCircuitRejected());
+        assertEquals("10", e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void get_whenServerRecoversAfterOpenDuration_thenTrialCallClosesCircuit() throws Exception {
+        itemsStatus = 500;
+        ClientGuard guard = guard("items", 10, breaker(4, Duration.ofMillis(200)));
+        BaseClient items = client("/items", guard);
+        for (int i = 0; i < 4; i++) {
+            consume(items.get("/1", 1L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+
+        itemsStatus = 200;
+        TimeUnit.MILLISECONDS.sleep(250);
+
+        assertEquals(HttpStatus.OK, consume(items.get("/1", 1L)).getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void get_whenBulkheadIsFull_thenRejectOnlyRequestsOfSlowClient() throws Exception {
+        itemsLatencyMillis = 200;
+        itemsReceived = new CountDownLatch(2);
+        ClientGuard itemsGuard = guard("items", 2, breaker(4, Duration.ofSeconds(10)));
+        BaseClient items = client("/items", itemsGuard);
+        BaseClient users = client("/users", guard("users", 2, breaker(4, Duration.ofSeconds(10))));
+
+        List<Future<ResponseEntity<Object>>> slow = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2; i++) {
+                slow.add(executor.submit(() -> consume(items.get("/1", 1L))));
+            }
+            assertTrue(itemsReceived.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ShareItServerUnavailableException.class, () -> items.get("/1", 1L));
+            assertEquals(HttpStatus.OK, consume(users.get("/1", 1L)).getStatusCode());
+
+            for (Future<ResponseEntity<Object>> response : slow) {
+                assertEquals(HttpStatus.OK, response.get(5, TimeUnit.SECONDS).getStatusCode());
+            }
+        }
+        assertEquals(1, itemsGuard.getBulkheadRejected());
+        assertEquals(0, itemsGuard.getActiveCalls());
+        assertEquals(2, itemsCalls.get());
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        itemsCalls.incrementAndGet();
+        itemsReceived.countDown();
+        try {
+            TimeUnit.MILLISECONDS.sleep(itemsLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        respond(exchange, itemsStatus);
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, body.length);
+            out.write(body);
+        }
+    }
+
+    private BaseClient client(String prefix, ClientGuard guard) {
+        RestTemplate rest = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(
+                "http://127.0.0.1:" + stub.getAddress().getPort() + prefix));
+        return new BaseClient(rest, guard);
+    }
+
+    private static ClientGuard guard(String name, int maxConcurrentCalls, CircuitBreaker circuitBreaker) {
+        return new ClientGuard(name, maxConcurrentCalls, Duration.ZERO, circuitBreaker);
+    }
+
+    private static CircuitBreaker breaker(int window, Duration openDuration) {
+        return new CircuitBreaker(50, window, window, openDuration, 1);
+    }
+
+    private static ResponseEntity<Object> consume(ResponseEntity<Object> response) throws IOException {
+        if (response.getBody() instanceof InputStreamResource body) {
+            try (InputStream in = body.getInputStream()) {
+                in.readAllBytes();
+            }
+        }
+        return response;
+    }
+}
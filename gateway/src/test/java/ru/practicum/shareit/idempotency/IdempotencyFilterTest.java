@@ -0,0 +1,183 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка IdempotencyFilter с хранилищем in-memory: сервер заменен цепочкой фильтров,
+ * которая считает вызовы и отвечает заданным статусом.
+ */
+
+class IdempotencyFilterTest {
+    private static final String BODY = "{\"name\":\"Drill\"}";
+
+    private IdempotencyProperties properties;
+    private IdempotencyFilter filter;
+    private final AtomicInteger serverCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        filter = new IdempotencyFilter(new InMemoryIdempotencyStore(properties), properties);
+    }
+
+    @Test
+    void doFilter_whenRequestRetried_thenReplayStoredResponse() throws Exception {
+        MockHttpServletResponse first = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+        MockHttpServletResponse retry = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        assertEquals(1, serverCalls.get());
+        assertEquals(HttpStatus.CREATED.value(), first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED.value(), retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, retry.getContentType());
+    }
+
+    @Test
+    void doFilter_whenSameKeyUsedByAnotherUser_thenSendBothToServer() throws Exception {
+        send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+        MockHttpServletRequest otherUser = request("key-1", BODY);
+        otherUser.removeHeader("X-Sharer-User-Id");
+        otherUser.addHeader("X-Sharer-User-Id", "2");
+
+        send(otherUser, respondWith(HttpStatus.CREATED));
+
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenDuplicateArrivesWhileFirstInFlight_thenReturnConflict() throws Exception {
+        MockHttpServletResponse[] duplicate = new MockHttpServletResponse[1];
+        FilterChain slowServer = (request, response) -> {
+            duplicate[0] = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+            respondWith(HttpStatus.CREATED).doFilter(request, response);
+        };
+
+        MockHttpServletResponse first = send(request("key-1", BODY), slowServer);
+
+        assertEquals(HttpStatus.CONFLICT.value(), duplicate[0].getStatus());
+        assertEquals(HttpStatus.CREATED.value(), first.getStatus());
+        assertEquals(1, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenKeyReusedWithDifferentBody_thenReturnUnprocessableEntity() throws Exception {
+        send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        MockHttpServletResponse response = send(request("key-1", "{\"name\":\"Hammer\"}"),
+                respondWith(HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), response.getStatus());
+        assertEquals(1, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenServerRespondsWithNonStandardSuccessStatus_thenStoreResponse() throws Exception {
+        FilterChain server = (request, response) -> {
+            serverCalls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(299);
+        };
+
+        MockHttpServletResponse first = send(request("key-1", BODY), server);
+        MockHttpServletResponse retry = send(request("key-1", BODY), server);
+
+        assertEquals(299, first.getStatus());
+        assertEquals(299, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenServerRespondsWithError_thenReleaseKey() throws Exception {
+        MockHttpServletResponse failed = send(request("key-1", BODY), respondWith(HttpStatus.INTERNAL_SERVER_ERROR));
+        MockHttpServletResponse retry = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), failed.getStatus());
+        assertEquals(HttpStatus.CREATED.value(), retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenServerCallThrows_thenReleaseKey() throws Exception {
+        FilterChain brokenServer = (request, response) -> {
+            serverCalls.incrementAndGet();
+            throw new IllegalStateException("shareIt Server is unavailable");
+        };
+
+        assertThrows(IllegalStateException.class, () -> send(request("key-1", BODY), brokenServer));
+        MockHttpServletResponse retry = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.CREATED.value(), retry.getStatus());
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenStoredResponseExpired_thenSendRequestAgain() throws Exception {
+        properties.setTtl(Duration.ofMillis(100));
+        filter = new IdempotencyFilter(new InMemoryIdempotencyStore(properties), properties);
+        send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        MockHttpServletResponse response = send(request("key-1", BODY), respondWith(HttpStatus.CREATED));
+
+        assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void doFilter_whenKeyIsBlank_thenReturnBadRequest() throws Exception {
+        MockHttpServletResponse response = send(request(" ", BODY), respondWith(HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals(0, serverCalls.get());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain respondWith(HttpStatus status) {
+        return (request, response) -> {
+            int call = serverCalls.incrementAndGet();
+            byte[] body = ("{\"id\":" + call + ",\"request\":"
+                    + new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8) + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status.value());
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write(body);
+        };
+    }
+
+    private static MockHttpServletRequest request(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        request.addHeader("X-Sharer-User-Id", "1");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
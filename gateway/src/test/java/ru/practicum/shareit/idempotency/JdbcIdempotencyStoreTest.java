@@ -0,0 +1,139 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка JdbcIdempotencyStore на встроенной базе H2 с таблицей из db/idempotency-schema.sql.
+ */
+
+class JdbcIdempotencyStoreTest {
+    private static final Duration LOCK_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final int THREADS = 50;
+
+    private static JdbcTemplate jdbcTemplate;
+    private JdbcIdempotencyStore store;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        DatabasePopulatorUtils.execute(
+                new ResourceDatabasePopulator(new ClassPathResource("db/idempotency-schema.sql")), dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        store = new JdbcIdempotencyStore(jdbcTemplate);
+    }
+
+    @Test
+    void reserve_whenKeyIsFree_thenReserveItForRequestInFlight() {
+        assertTrue(store.reserve("1:key", "fingerprint", LOCK_TIMEOUT).isEmpty());
+
+        Optional<IdempotencyRecord> existing = store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+
+        assertTrue(existing.isPresent());
+        assertFalse(existing.get().isCompleted());
+        assertEquals("fingerprint", existing.get().fingerprint());
+    }
+
+    @Test
+    void reserve_whenManyThreadsReserveSameKey_thenOnlyOneSucceeds() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<IdempotencyRecord>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+                }));
+            }
+            start.countDown();
+        }
+
+        long reserved = 0;
+        for (Future<Optional<IdempotencyRecord>> result : results) {
+            if (result.get().isEmpty()) {
+                reserved++;
+            }
+        }
+        assertEquals(1, reserved);
+    }
+
+    @Test
+    void complete_whenRequestSucceeded_thenReturnStoredResponse() {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+
+        store.complete("1:key", "fingerprint", new IdempotentResponse(201, "application/json", body), TTL);
+        IdempotencyRecord record = store.reserve("1:key", "fingerprint", LOCK_TIMEOUT).orElseThrow();
+
+        assertTrue(record.isCompleted());
+        assertEquals(201, record.response().status());
+        assertEquals("application/json", record.response().contentType());
+        assertArrayEquals(body, record.response().body());
+    }
+
+    @Test
+    void release_whenRequestFailed_thenKeyCanBeReservedAgain() {
+        store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+
+        store.release("1:key");
+
+        assertTrue(store.reserve("1:key", "fingerprint", LOCK_TIMEOUT).isEmpty());
+    }
+
+    @Test
+    void release_whenResponseStored_thenKeepIt() {
+        store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+        store.complete("1:key", "fingerprint", new IdempotentResponse(201, null, new byte[0]), TTL);
+
+        store.release("1:key");
+
+        assertTrue(store.reserve("1:key", "fingerprint", LOCK_TIMEOUT).orElseThrow().isCompleted());
+    }
+
+    @Test
+    void reserve_whenRecordExpired_thenReserveKeyAgain() {
+        store.reserve("1:key", "fingerprint", LOCK_TIMEOUT);
+        store.complete("1:key", "fingerprint", new IdempotentResponse(201, null, new byte[0]), Duration.ZERO);
+
+        assertTrue(store.reserve("1:key", "other", LOCK_TIMEOUT).isEmpty());
+    }
+
+    @Test
+    void purgeExpired_whenRecordsExpired_thenDeleteOnlyThem() {
+        store.reserve("1:expired", "fingerprint", Duration.ZERO);
+        store.reserve("1:active", "fingerprint", LOCK_TIMEOUT);
+
+        store.purgeExpired();
+
+        assertEquals(List.of("1:active"),
+                jdbcTemplate.queryForList("SELECT idempotency_key FROM idempotency_keys", String.class));
+    }
+}
@@ -9,6 +9,9 @@ import java.time.LocalDateTime;
 
 /**
  * Класс—модель данных приложения, дающий описание объекту Booking.
+ * Идентификатор выдается последовательностью bookings_seq, как и у User.
+ * Поле version используется для оптимистической блокировки: изменение бронирования,
+ * прочитанного до параллельного изменения, отклоняется при фиксации транзакции.
  */
 
 @Entity
@@ -21,7 +24,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(
             name = "id",
             nullable = false,
@@ -41,14 +45,14 @@ public class Booking {
     )
     private LocalDateTime end;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(
             name = "item_id",
             nullable = false
     )
     private Item item;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(
             name = "booker_id",
             nullable = false
@@ -61,4 +65,11 @@ public class Booking {
     )
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    @Column(
+            name = "version",
+            nullable = false
+    )
+    private Long version;
 }
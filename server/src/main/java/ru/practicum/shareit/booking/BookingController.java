@@ -3,17 +3,24 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * BookingController — класс-контроллер, предоставляющий REST API для работы с данными типа Booking.
  * Базовый путь - /bookings.
+ * Списки Booking выдаются целиком, либо постранично при указании параметров size и/или cursor;
+ * токен следующей страницы передается в заголовке ответа X-Next-Cursor.
+ * GET /bookings?ids=1,2,3 возвращает несколько Booking за один запрос, если пользователь - арендатор
+ * или владелец вещи каждого из них.
  * Обмен данными осуществляется с микросервисом shareIt Gateway
  */
 
@@ -25,23 +32,38 @@ import java.util.Collection;
         produces = "application/json"
 )
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping(consumes = "application/json")
     @ResponseStatus(HttpStatus.CREATED)
     public BookingPartialDto addBooking(@RequestBody BookingCreateDto booking,
                                         @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление Booking: {}, user ID: {}", booking, userId);
+        log.debug("Запрос на добавление Booking: {}, user ID: {}", booking, userId);
         BookingPartialDto bookingPartialDto = bookingService.addBooking(userId, booking);
-        log.info("Успешно добавлен Booking: {}, user ID: {}", bookingPartialDto, userId);
+        log.info("Успешно добавлен Booking c ID: {}, user ID: {}", bookingPartialDto.getId(), userId);
         return bookingPartialDto;
     }
 
+    @PostMapping(
+            path = "/batch",
+            consumes = "application/json"
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    public Collection<BookingPartialDto> addBookings(@RequestBody List<BookingCreateDto> bookings,
+                                                     @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на добавление {} Booking, user ID: {}", bookings.size(), userId);
+        Collection<BookingPartialDto> bookingPartialDtos = bookingService.addBookings(userId, bookings);
+        log.info("Успешно добавлено {} Booking, user ID: {}", bookingPartialDtos.size(), userId);
+        return bookingPartialDtos;
+    }
+
     @PatchMapping(path = "/{bookingId}")
     public BookingPartialDto updateBookingStatus(@PathVariable Long bookingId,
                                                  @RequestParam(name = "approved") Boolean approved,
                                                  @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на обновление Booking по ID: {}, user ID: {}", bookingId, userId);
+        log.debug("Запрос на обновление Booking по ID: {}, user ID: {}", bookingId, userId);
         BookingPartialDto bookingPartialDto = bookingService.updateBookingStatus(userId, bookingId, approved);
         log.info("Успешно обновлен Booking c ID: {}, user ID: {}", bookingPartialDto.getId(), userId);
         return bookingPartialDto;
@@ -50,33 +72,65 @@ public class BookingController {
     @GetMapping(path = "/{bookingId}")
     public BookingPartialDto getBookingById(@PathVariable Long bookingId,
                                             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение Booking по ID: {}, user ID: {}", bookingId, userId);
+        log.debug("Запрос на получение Booking по ID: {}, user ID: {}", bookingId, userId);
         BookingPartialDto bookingPartialDto = bookingService.getBookingById(userId, bookingId);
         log.info("Успешно получен Booking с ID: {}, user ID: {}", bookingId, userId);
         return bookingPartialDto;
     }
 
+    @GetMapping(params = "ids")
+    public Collection<BookingPartialDto> getBookingsByIds(@RequestParam(name = "ids") List<Long> ids,
+                                                          @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на получение {} Bookings по списку ID, user ID: {}", ids.size(), userId);
+        Collection<BookingPartialDto> bookings = bookingService.getBookingsByIds(userId, ids);
+        log.info("Успешно получено {} Bookings по списку ID, user ID: {}", bookings.size(), userId);
+        return bookings;
+    }
+
     @GetMapping
-    public Collection<BookingPartialDto> getAllUserBookings(
+    public ResponseEntity<Collection<BookingPartialDto>> getAllUserBookings(
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
         BookingState state = BookingState.getBookingState(stateParam)
                 .orElseThrow(() -> new ValidationException("Bad booking state param: " + stateParam));
-        log.info("Запрос на получение Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
-        Collection<BookingPartialDto> bookings = bookingService.getUserBookings(userId, state);
-        log.info("Успешно получены Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
-        return bookings;
+        log.debug("Запрос на получение Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
+        if (cursor == null && size == null) {
+            Collection<BookingPartialDto> bookings = bookingService.getUserBookings(userId, state);
+            log.info("Успешно получены Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
+            return ResponseEntity.ok(bookings);
+        }
+        CursorPage<BookingPartialDto> page = bookingService.getUserBookings(userId, state, cursor, size);
+        log.info("Успешно получена страница Bookings пользователя с ID: {}, и параметром state: {}", userId, state);
+        return toResponse(page);
     }
 
     @GetMapping(path = "/owner")
-    public Collection<BookingPartialDto> getAllUserItemsBookings(
+    public ResponseEntity<Collection<BookingPartialDto>> getAllUserItemsBookings(
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
         BookingState state = BookingState.getBookingState(stateParam)
                 .orElseThrow(() -> new ValidationException("Bad booking state param: " + stateParam));
-        log.info("Запрос на получение Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
-        Collection<BookingPartialDto> bookings = bookingService.getAllUserItemsBookings(userId, state);
-        log.info("Успешно получены Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
-        return bookings;
+        log.debug("Запрос на получение Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
+        if (cursor == null && size == null) {
+            Collection<BookingPartialDto> bookings = bookingService.getAllUserItemsBookings(userId, state);
+            log.info("Успешно получены Bookings вещей пользователя с ID: {}, и параметром state: {}", userId, state);
+            return ResponseEntity.ok(bookings);
+        }
+        CursorPage<BookingPartialDto> page = bookingService.getAllUserItemsBookings(userId, state, cursor, size);
+        log.info("Успешно получена страница Bookings вещей пользователя с ID: {}, и параметром state: {}",
+                userId, state);
+        return toResponse(page);
+    }
+
+    private static ResponseEntity<Collection<BookingPartialDto>> toResponse(CursorPage<BookingPartialDto> page) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (page.hasNext()) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return responseBuilder.body(page.content());
     }
 }
@@ -1,44 +1,232 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingPartialDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Интерфейс, определяющий набор стандартных и дополнительных действий хранения и поиска
- * с объектом типа Booking, используя запросные методы
+ * с объектом типа Booking, используя запросные методы.
+ * Методы, возвращающие Window, реализуют keyset-пагинацию по паре (start, id).
+ * Последнее и следующее бронирования вещей владельца вычисляются в базе данных оконной функцией,
+ * запрос совместим с PostgreSQL и H2.
+ * Связи item и booker загружаются лениво, поэтому каждый метод явно задаёт план выборки:
+ * методы, результат которых преобразуется в BookingPartialDto, подгружают item и booker одним запросом
+ * через EntityGraph, а методы, читающие только поля самого бронирования, связи не загружают.
+ * Полные списки бронирований без пагинации проецируются сразу в BookingPartialDto выражением SELECT new:
+ * строки не попадают в контекст персистентности, не создаются снимки для dirty checking и прокси связей.
+ * Владелец вещи не подгружается: сервисам нужен только его идентификатор, который хранится в строке items.
+ * Периоды занятости вещи для календаря бронирований проецируются в BookingPeriod
+ * и читаются по индексу (item_id, start).
+ * Статус меняется условным UPDATE из WAITING с увеличением версии: решение владельца атомарно
+ * и не требует повторов при оптимистической блокировке.
+ * Версии бронирований вещи для ETag агрегируются одним запросом по индексу item_id.
  */
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long userId,
-                                                                          LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime end);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime start);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemIdInOrderByStartDesc(List<Long> ids);
-
-    List<Booking> findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(List<Long> ids,
-                                                                          LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findByItemIdInAndEndBeforeOrderByStartDesc(List<Long> ids, LocalDateTime end);
-
-    List<Booking> findByItemIdInAndStartAfterOrderByStartDesc(List<Long> ids, LocalDateTime start);
-
-    List<Booking> findByItemIdInAndStatusOrderByStartDesc(List<Long> ids, BookingStatus status);
-
+    String BOOKING_DTO_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingPartialDto(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u ";
+    String BOOKING_PERIOD_SELECT = "SELECT new ru.practicum.shareit.booking.calendar.BookingPeriod(b.start, b.end) " +
+            "FROM Booking AS b ";
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdIn(Collection<Long> ids);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE u.id = :bookerId " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByBookerIdOrderByStartDesc(@Param("bookerId") Long userId);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE u.id = :bookerId AND b.start < :start AND b.end > :end " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("bookerId") Long userId,
+                                                                                    @Param("start") LocalDateTime start,
+                                                                                    @Param("end") LocalDateTime end);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE u.id = :bookerId AND b.end < :end " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByBookerIdAndEndBeforeOrderByStartDesc(@Param("bookerId") Long userId,
+                                                                       @Param("end") LocalDateTime end);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE u.id = :bookerId AND b.start > :start " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByBookerIdAndStartAfterOrderByStartDesc(@Param("bookerId") Long userId,
+                                                                        @Param("start") LocalDateTime start);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE u.id = :bookerId AND b.status = :status " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByBookerIdAndStatusOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                    @Param("status") BookingStatus status);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE i.id IN :ids " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByItemIdInOrderByStartDesc(@Param("ids") List<Long> ids);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE i.id IN :ids AND b.start < :start AND b.end > :end " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(@Param("ids") List<Long> ids,
+                                                                                    @Param("start") LocalDateTime start,
+                                                                                    @Param("end") LocalDateTime end);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE i.id IN :ids AND b.end < :end " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByItemIdInAndEndBeforeOrderByStartDesc(@Param("ids") List<Long> ids,
+                                                                       @Param("end") LocalDateTime end);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE i.id IN :ids AND b.start > :start " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByItemIdInAndStartAfterOrderByStartDesc(@Param("ids") List<Long> ids,
+                                                                        @Param("start") LocalDateTime start);
+
+    @Query(BOOKING_DTO_SELECT +
+            "WHERE i.id IN :ids AND b.status = :status " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPartialDto> findByItemIdInAndStatusOrderByStartDesc(@Param("ids") List<Long> ids,
+                                                                    @Param("status") BookingStatus status);
+
+    @Modifying
+    @Query("UPDATE Booking AS b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING"
+    )
+    int updateStatusIfWaiting(@Param("id") Long id, @Param("status") BookingStatus status);
+
+    @Query("SELECT b.status FROM Booking AS b WHERE b.id = :id")
+    Optional<BookingStatus> findStatusById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"booker"})
     Optional<Booking> findFirstByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime end);
 
     List<Booking> findByItemId(Long itemId);
 
+    List<Booking> findByItemIdIn(Collection<Long> itemIds);
+
+    @Query(BOOKING_PERIOD_SELECT +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :before " +
+            "ORDER BY b.start DESC"
+    )
+    List<BookingPeriod> findBlockingPeriodsStartingBefore(@Param("itemId") Long itemId,
+                                                          @Param("statuses") Collection<BookingStatus> statuses,
+                                                          @Param("before") LocalDateTime before,
+                                                          Limit limit);
+
+    @Query(BOOKING_PERIOD_SELECT +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start >= :from AND b.start < :to " +
+            "ORDER BY b.start ASC"
+    )
+    List<BookingPeriod> findBlockingPeriodsStartingBetween(@Param("itemId") Long itemId,
+                                                           @Param("statuses") Collection<BookingStatus> statuses,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    @Query(BOOKING_PERIOD_SELECT +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "ORDER BY b.start ASC"
+    )
+    List<BookingPeriod> findBlockingPeriodsByItemId(@Param("itemId") Long itemId,
+                                                    @Param("statuses") Collection<BookingStatus> statuses);
+
     List<Booking> findByItemIdInOrderByItemIdAsc(List<Long> ids);
+
+    @Query(value = "SELECT b.id AS id, b.item_id AS itemId, b.start_date_time AS startDateTime, " +
+            "b.end_date_time AS endDateTime, b.status AS status " +
+            "FROM (" +
+            "SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date_time DESC) AS rn " +
+            "FROM bookings AS bk JOIN items AS it ON it.id = bk.item_id " +
+            "WHERE it.owner_id = :ownerId AND bk.start_date_time < :now " +
+            "UNION ALL " +
+            "SELECT bk.*, ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date_time ASC) AS rn " +
+            "FROM bookings AS bk JOIN items AS it ON it.id = bk.item_id " +
+            "WHERE it.owner_id = :ownerId AND bk.start_date_time > :now" +
+            ") AS b " +
+            "WHERE b.rn = 1",
+            nativeQuery = true
+    )
+    List<ItemBookingView> findLastAndNextBookingsByOwnerId(@Param("ownerId") Long ownerId,
+                                                           @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdOrderByStartDescIdDesc(Long bookerId, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(Long bookerId,
+                                                                                LocalDateTime start, LocalDateTime end,
+                                                                                ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndEndBeforeOrderByStartDescIdDesc(Long bookerId, LocalDateTime end,
+                                                                     ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStartAfterOrderByStartDescIdDesc(Long bookerId, LocalDateTime start,
+                                                                      ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStatusOrderByStartDescIdDesc(Long bookerId, BookingStatus status,
+                                                                  ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdOrderByStartDescIdDesc(Long ownerId, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(Long ownerId,
+                                                                                   LocalDateTime start,
+                                                                                   LocalDateTime end,
+                                                                                   ScrollPosition position,
+                                                                                   Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(Long ownerId, LocalDateTime end,
+                                                                        ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(Long ownerId, LocalDateTime start,
+                                                                         ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByItemOwnerIdAndStatusOrderByStartDescIdDesc(Long ownerId, BookingStatus status,
+                                                                     ScrollPosition position, Limit limit);
+
+    @Query("SELECT COUNT(b) AS count, COALESCE(MAX(b.id), 0) AS lastId, COALESCE(SUM(b.version), 0) AS version, " +
+            "COALESCE(SUM(CASE WHEN b.start < :now THEN 1 ELSE 0 END), 0) AS startedCount " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id = :itemId"
+    )
+    ItemBookingsRevisionView findRevisionByItemId(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
 }
@@ -3,8 +3,10 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Интерфейс, определяющий набор методов для связи контроллера Booking и репозитория Booking,
@@ -15,11 +17,20 @@ public interface BookingService {
 
     BookingPartialDto addBooking(Long userId, BookingCreateDto booking);
 
+    Collection<BookingPartialDto> addBookings(Long userId, List<BookingCreateDto> bookings);
+
     BookingPartialDto updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
     BookingPartialDto getBookingById(Long userId, Long bookingId);
 
+    Collection<BookingPartialDto> getBookingsByIds(Long userId, List<Long> bookingIds);
+
     Collection<BookingPartialDto> getUserBookings(Long userId, BookingState state);
 
     Collection<BookingPartialDto> getAllUserItemsBookings(Long userId, BookingState state);
+
+    CursorPage<BookingPartialDto> getUserBookings(Long userId, BookingState state, String cursor, Integer size);
+
+    CursorPage<BookingPartialDto> getAllUserItemsBookings(Long userId, BookingState state, String cursor,
+                                                          Integer size);
 }
@@ -1,28 +1,43 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * BookingServiceImpl — класс, реализующий интерфейс BookingService.
  * Содержит всю бизнес-логику по работе с объектами Booking:
- * добавление нового Booking, обновление статуса Booking,
- * получение Booking по ID, получение списка всех Booking пользователя,
- * получение списка Booking по вещам пользователя.
+ * добавление нового Booking и списка Booking одной транзакцией, обновление статуса Booking,
+ * проверка по BookingCalendar, что период бронирования не пересекается с другими бронированиями вещи,
+ * обновление статуса условным UPDATE только из WAITING, поэтому параллельные и повторные решения
+ * владельца не перезаписывают друг друга,
+ * получение Booking по ID и по списку ID, получение списка всех Booking пользователя,
+ * получение списка Booking по вещам пользователя, в том числе постранично (keyset-пагинация).
  * Выполняет запросы к базе данных
  * Определяет транзакционные методы.
  */
@@ -31,31 +46,56 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String START_PROPERTY = "start";
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingCalendar bookingCalendar;
 
     @Override
     @Transactional
     public BookingPartialDto addBooking(Long userId, BookingCreateDto bookingCreateDto) {
         Item item = itemRepository.findById(bookingCreateDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found by id: " + bookingCreateDto.getItemId()));
-        User booker = userRepository.findById(userId)
+        User booker = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
-        if (!item.getAvailable()) {
-            throw new ValidationException("Item with ID: " + bookingCreateDto.getItemId() +
-                    " not available for booking");
-        }
-        if (userId.equals(item.getOwner().getId())) {
-            throw new ValidationException("User with ID: " + userId + " is the owner of Item with ID: "
-                    + bookingCreateDto.getItemId());
-        }
+        checkItemCanBeBooked(userId, item);
+        bookingCalendar.reserve(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd());
 
         bookingCreateDto.setStatus(BookingStatus.WAITING);
         Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingCreateDto, item, booker));
         return BookingMapper.toBookingPartialDto(booking);
     }
 
+    @Override
+    @Transactional
+    public Collection<BookingPartialDto> addBookings(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        User booker = userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        List<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .distinct()
+                .toList();
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>(bookingCreateDtos.size());
+        for (BookingCreateDto bookingCreateDto : bookingCreateDtos) {
+            Item item = items.get(bookingCreateDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Item not found by id: " + bookingCreateDto.getItemId());
+            }
+            checkItemCanBeBooked(userId, item);
+            bookingCalendar.reserve(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd());
+            bookingCreateDto.setStatus(BookingStatus.WAITING);
+            bookings.add(BookingMapper.toBooking(bookingCreateDto, item, booker));
+        }
+        checkBatchPeriodsDoNotOverlap(bookingCreateDtos);
+        return bookingRepository.saveAll(bookings).stream()
+                .map(BookingMapper::toBookingPartialDto)
+                .toList();
+    }
+
     @Override
     @Transactional
     public BookingPartialDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
@@ -66,33 +106,77 @@ public class BookingServiceImpl implements BookingService {
                     " is not a owner of Item with ID: " + booking.getItem().getId());
         }
 
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (booking.getStatus() != status) {
+            checkBookingIsWaiting(booking.getId(), booking.getStatus());
+            if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+                BookingStatus currentStatus = bookingRepository.findStatusById(bookingId)
+                        .orElseThrow(() -> new NotFoundException("Booking not found by id: " + bookingId));
+                if (currentStatus != status) {
+                    checkBookingIsWaiting(bookingId, currentStatus);
+                }
+            } else if (!BookingCalendar.isBlocking(status)) {
+                bookingCalendar.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            }
         }
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingPartialDto(updatedBooking);
+        BookingPartialDto bookingPartialDto = BookingMapper.toBookingPartialDto(booking);
+        bookingPartialDto.setStatus(status);
+        return bookingPartialDto;
     }
 
     @Override
     public BookingPartialDto getBookingById(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found by id: " + bookingId));
+        checkBookerOrItemOwner(userId, booking);
+        return BookingMapper.toBookingPartialDto(booking);
+    }
+
+    /**
+     * Пакетный аналог getBookingById: бронирования с вещами и арендаторами читаются одним запросом IN.
+     * Отсутствующие ID приводят к NotFoundException, чужое бронирование - к ValidationException,
+     * как и при чтении по одному ID. Порядок ответа совпадает с порядком ID без повторов.
+     */
+    @Override
+    public Collection<BookingPartialDto> getBookingsByIds(Long userId, List<Long> bookingIds) {
+        List<Long> ids = bookingIds.stream()
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> bookings = bookingRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !bookings.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Bookings not found by ids: " + missingIds);
+        }
+
+        List<BookingPartialDto> bookingPartialDtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            checkBookerOrItemOwner(userId, booking);
+            bookingPartialDtos.add(BookingMapper.toBookingPartialDto(booking));
+        }
+        return bookingPartialDtos;
+    }
+
+    private static void checkBookerOrItemOwner(Long userId, Booking booking) {
         if ((!userId.equals(booking.getBooker().getId())) && !(userId.equals(booking.getItem().getOwner().getId()))) {
             throw new ValidationException("User with ID: " + userId +
                     " is not a owner of Item with ID: " + booking.getItem().getId() +
                     " or is not a owner of Booking with ID: " + booking.getId());
         }
-        return BookingMapper.toBookingPartialDto(booking);
     }
 
     @Override
     public Collection<BookingPartialDto> getUserBookings(Long userId, BookingState state) {
-        User booker = userRepository.findById(userId)
+        userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
 
-        List<Booking> bookings;
+        List<BookingPartialDto> bookings;
         switch (state) {
             case ALL:
                 bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId);
@@ -118,14 +202,12 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedOperationException("Booking state param: " + state + " unsupported");
         }
-        return bookings.stream()
-                .map(BookingMapper::toBookingPartialDto)
-                .toList();
+        return bookings;
     }
 
     @Override
     public Collection<BookingPartialDto> getAllUserItemsBookings(Long userId, BookingState state) {
-        User booker = userRepository.findById(userId)
+        userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
         List<Long> itemsId = itemRepository.findByOwnerIdOrderByIdAsc(userId).stream()
                 .map(Item::getId)
@@ -134,7 +216,7 @@ public class BookingServiceImpl implements BookingService {
             return List.of();
         }
 
-        List<Booking> bookings;
+        List<BookingPartialDto> bookings;
         switch (state) {
             case ALL:
                 bookings = bookingRepository.findByItemIdInOrderByStartDesc(itemsId);
@@ -160,8 +242,113 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedOperationException("Booking state param: " + state + " unsupported");
         }
-        return bookings.stream()
+        return bookings;
+    }
+
+    @Override
+    public CursorPage<BookingPartialDto> getUserBookings(Long userId, BookingState state, String cursor,
+                                                         Integer size) {
+        Limit limit = Limit.of(KeysetCursor.checkPageSize(size));
+        ScrollPosition position = KeysetCursor.decode(cursor, START_PROPERTY);
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findByBookerIdOrderByStartDescIdDesc(userId, position, limit);
+            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(userId,
+                    now, now, position, limit);
+            case PAST -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDescIdDesc(userId, now,
+                    position, limit);
+            case FUTURE -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDescIdDesc(userId, now,
+                    position, limit);
+            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(userId,
+                    BookingStatus.WAITING, position, limit);
+            case REJECTED -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(userId,
+                    BookingStatus.REJECTED, position, limit);
+        };
+        return toCursorPage(bookings);
+    }
+
+    @Override
+    public CursorPage<BookingPartialDto> getAllUserItemsBookings(Long userId, BookingState state, String cursor,
+                                                                 Integer size) {
+        Limit limit = Limit.of(KeysetCursor.checkPageSize(size));
+        ScrollPosition position = KeysetCursor.decode(cursor, START_PROPERTY);
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findByItemOwnerIdOrderByStartDescIdDesc(userId, position, limit);
+            case CURRENT -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(
+                    userId, now, now, position, limit);
+            case PAST -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(userId, now,
+                    position, limit);
+            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(userId, now,
+                    position, limit);
+            case WAITING -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDescIdDesc(userId,
+                    BookingStatus.WAITING, position, limit);
+            case REJECTED -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDescIdDesc(userId,
+                    BookingStatus.REJECTED, position, limit);
+        };
+        return toCursorPage(bookings);
+    }
+
+    /**
+     * Решение по бронированию принимается один раз: повтор того же решения возвращает текущее состояние,
+     * противоположное решение по уже рассмотренному бронированию отклоняется. В том числе владелец
+     * не может отклонить уже подтвержденное бронирование (APPROVED -> REJECTED): иначе параллельные
+     * решения владельца зависели бы от порядка выполнения.
+     */
+    private static void checkBookingIsWaiting(Long bookingId, BookingStatus status) {
+        if (status != BookingStatus.WAITING) {
+            throw new ConflictException("Booking with ID: " + bookingId + " is already " + status);
+        }
+    }
+
+    /**
+     * Календарь проверяет период только по уже сохраненным бронированиям, поэтому бронирования одной вещи
+     * внутри пакета сверяются между собой: после сортировки по началу пересечься могут только соседние.
+     */
+    private static void checkBatchPeriodsDoNotOverlap(List<BookingCreateDto> bookingCreateDtos) {
+        Map<Long, List<BookingCreateDto>> byItem = bookingCreateDtos.stream()
+                .collect(Collectors.groupingBy(BookingCreateDto::getItemId));
+        for (List<BookingCreateDto> itemBookings : byItem.values()) {
+            List<BookingCreateDto> sorted = itemBookings.stream()
+                    .sorted(Comparator.comparing(BookingCreateDto::getStart))
+                    .toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                BookingCreateDto previous = sorted.get(i - 1);
+                BookingCreateDto next = sorted.get(i);
+                if (previous.getEnd().isAfter(next.getStart())) {
+                    throw new ConflictException("Item with ID: " + next.getItemId() + " is booked twice in batch: "
+                            + previous.getStart() + " to " + previous.getEnd() + " and "
+                            + next.getStart() + " to " + next.getEnd());
+                }
+            }
+        }
+    }
+
+    private static void checkItemCanBeBooked(Long userId, Item item) {
+        if (!item.getAvailable()) {
+            throw new ValidationException("Item with ID: " + item.getId() + " not available for booking");
+        }
+        if (userId.equals(item.getOwner().getId())) {
+            throw new ValidationException("User with ID: " + userId + " is the owner of Item with ID: "
+                    + item.getId());
+        }
+    }
+
+    private static CursorPage<BookingPartialDto> toCursorPage(Window<Booking> bookings) {
+        List<BookingPartialDto> content = bookings.stream()
                 .map(BookingMapper::toBookingPartialDto)
                 .toList();
+        String nextCursor = null;
+        if (bookings.hasNext() && !bookings.isEmpty()) {
+            Booking last = bookings.getContent().getLast();
+            nextCursor = KeysetCursor.encode(last.getStart(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor);
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция объекта Booking для вывода последнего и ближайшего следующего бронирования вещи.
+ * Заполняется напрямую из результата запроса, без загрузки entity Booking и связанных объектов.
+ */
+
+public interface ItemBookingView {
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDateTime();
+
+    LocalDateTime getEndDateTime();
+
+    BookingStatus getStatus();
+}
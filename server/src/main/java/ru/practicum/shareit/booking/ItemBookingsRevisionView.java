@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция версий бронирований вещи для вычисления ETag ответа владельцу.
+ * Число начавшихся бронирований определяет, какие из них выводятся как последнее и следующее.
+ */
+
+public interface ItemBookingsRevisionView {
+
+    Long getCount();
+
+    Long getLastId();
+
+    Long getVersion();
+
+    Long getStartedCount();
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.calendar;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс календаря занятости вещей. Вещь занята бронированиями в статусах WAITING и APPROVED,
+ * такие бронирования одной вещи не пересекаются между собой.
+ * Реализация выбирается свойством shareit.booking.calendar: database (по умолчанию) или in-memory.
+ */
+
+public interface BookingCalendar {
+    List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    /**
+     * Занимает период для нового бронирования или бронирования, снова ставшего активным.
+     * Выбрасывает ConflictException, если период пересекается с уже занятым.
+     */
+    void reserve(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Освобождает период бронирования, переведенного в статус REJECTED или CANCELED.
+     */
+    void release(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Возвращает занятые периоды, пересекающиеся с [from, to), в порядке начала.
+     */
+    List<BookingPeriod> getBusyPeriods(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    static boolean isBlocking(BookingStatus status) {
+        return BLOCKING_STATUSES.contains(status);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.calendar;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период занятости вещи [start, end): конец бронирования не пересекается с началом следующего.
+ */
+
+public record BookingPeriod(LocalDateTime start, LocalDateTime end) {
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
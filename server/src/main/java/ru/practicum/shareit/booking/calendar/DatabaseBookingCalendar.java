@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.calendar;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Календарь занятости вещей, читающий периоды из базы данных.
+ * Активные бронирования вещи не пересекаются, поэтому единственный кандидат на конфликт — бронирование
+ * с наибольшим началом раньше конца нового периода. Он находится одним шагом по индексу
+ * ix_bookings_item_start за O(log n) независимо от длины истории бронирований вещи.
+ * В PostgreSQL непересечение гарантирует ограничение исключения ex_bookings_item_period
+ * (миграция V6__booking_overlap_exclusion): параллельные бронирования одного периода,
+ * прошедшие проверку одновременно, отклоняются при фиксации транзакции.
+ */
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.calendar", havingValue = "database", matchIfMissing = true)
+public class DatabaseBookingCalendar implements BookingCalendar {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        List<BookingPeriod> candidate = bookingRepository.findBlockingPeriodsStartingBefore(itemId,
+                BLOCKING_STATUSES, end, Limit.of(1));
+        if (!candidate.isEmpty() && candidate.getFirst().overlaps(start, end)) {
+            throw new ConflictException("Item with ID: " + itemId + " is already booked from " +
+                    candidate.getFirst().start() + " to " + candidate.getFirst().end());
+        }
+    }
+
+    @Override
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    @Override
+    public List<BookingPeriod> getBusyPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingPeriod> periods = new ArrayList<>();
+        bookingRepository.findBlockingPeriodsStartingBefore(itemId, BLOCKING_STATUSES, from, Limit.of(1)).stream()
+                .filter(period -> period.overlaps(from, to))
+                .forEach(periods::add);
+        periods.addAll(bookingRepository.findBlockingPeriodsStartingBetween(itemId, BLOCKING_STATUSES, from, to));
+        return periods;
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Календарь занятости вещей в памяти приложения, используется для встроенной базы H2 и в тестовом профиле.
+ * Для каждой вещи хранится дерево непересекающихся периодов, упорядоченных по началу (TreeMap),
+ * поэтому проверка пересечения и поиск занятых периодов выполняются за O(log n).
+ * Периоды вещи загружаются из базы при первом обращении; пересекающиеся периоды, сохраненные ранее,
+ * объединяются в один. Число вещей в памяти ограничено свойством shareit.booking.calendar-max-items,
+ * вытесненная вещь загружается заново; доля попаданий публикуется через actuator (cache.gets, cache=booking-calendar).
+ * Новый период занимается сразу и освобождается, если транзакция бронирования откатилась;
+ * освобождение периода отклоненного бронирования выполняется после фиксации транзакции.
+ */
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.calendar", havingValue = "in-memory")
+public class InMemoryBookingCalendar implements BookingCalendar, MeterBinder {
+    private static final String CACHE_NAME = "booking-calendar";
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemTimeline> timelines;
+
+    public InMemoryBookingCalendar(BookingRepository bookingRepository,
+                                   @Value("${shareit.booking.calendar-max-items:10000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .build();
+    }
+
+    // Prometheus требует одинаковый набор тегов у всех cache.*, поэтому теги совпадают с метриками кэша users
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, timelines, CACHE_NAME,
+                Tags.of("cache.manager", "inMemoryBookingCalendar", "name", CACHE_NAME));
+    }
+
+    @Override
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timeline(itemId);
+        BookingPeriod conflict = timeline.reserve(start, end);
+        if (conflict != null) {
+            throw new ConflictException("Item with ID: " + itemId + " is already booked from " +
+                    conflict.start() + " to " + conflict.end());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(itemId, start, end);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId, start, end);
+                }
+            });
+        } else {
+            remove(itemId, start, end);
+        }
+    }
+
+    @Override
+    public List<BookingPeriod> getBusyPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return timeline(itemId).busyPeriods(from, to);
+    }
+
+    private ItemTimeline timeline(Long itemId) {
+        return timelines.get(itemId, this::load);
+    }
+
+    private ItemTimeline load(Long itemId) {
+        ItemTimeline timeline = new ItemTimeline();
+        bookingRepository.findBlockingPeriodsByItemId(itemId, BLOCKING_STATUSES)
+                .forEach(period -> timeline.merge(period.start(), period.end()));
+        return timeline;
+    }
+
+    /**
+     * Период, объединенный при загрузке с другими, нельзя освободить по отдельности:
+     * такая вещь вытесняется из памяти и при следующем обращении загружается из базы.
+     */
+    private void remove(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline != null && !timeline.remove(start, end)) {
+            timelines.invalidate(itemId);
+        }
+    }
+
+    private static class ItemTimeline {
+        private final NavigableMap<LocalDateTime, LocalDateTime> periods = new TreeMap<>();
+
+        synchronized BookingPeriod reserve(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = periods.lowerEntry(end);
+            if (candidate != null && candidate.getValue().isAfter(start)) {
+                return new BookingPeriod(candidate.getKey(), candidate.getValue());
+            }
+            periods.put(start, end);
+            return null;
+        }
+
+        synchronized boolean remove(LocalDateTime start, LocalDateTime end) {
+            return periods.remove(start, end);
+        }
+
+        synchronized List<BookingPeriod> busyPeriods(LocalDateTime from, LocalDateTime to) {
+            List<BookingPeriod> result = new ArrayList<>();
+            Map.Entry<LocalDateTime, LocalDateTime> floor = periods.lowerEntry(from);
+            if (floor != null && floor.getValue().isAfter(from)) {
+                result.add(new BookingPeriod(floor.getKey(), floor.getValue()));
+            }
+            periods.subMap(from, true, to, false)
+                    .forEach((start, end) -> result.add(new BookingPeriod(start, end)));
+            return result;
+        }
+
+        /**
+         * Периоды приходят из базы в порядке начала, пересекающиеся с последним сливаются с ним.
+         */
+        void merge(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> last = periods.lastEntry();
+            if (last != null && last.getValue().isAfter(start)) {
+                if (end.isAfter(last.getValue())) {
+                    periods.put(last.getKey(), end);
+                }
+            } else {
+                periods.put(start, end);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,11 +13,13 @@ import java.time.LocalDateTime;
  * Data transfer object объекта Booking, используемый для ответа на запросы.
  * Все поля объекта заполняются полностью, отсутствовать не могут.
  * Частично используются примитивные типы данных для улучшения быстродействия.
+ * Плоский конструктор используется в jpql-выражениях SELECT new для проекции строк без загрузки entity.
  */
 
 @Getter(AccessLevel.PUBLIC)
 @Setter(AccessLevel.PUBLIC)
 @Builder
+@AllArgsConstructor
 public class BookingPartialDto {
     private long id;
     private LocalDateTime start;
@@ -25,6 +28,11 @@ public class BookingPartialDto {
     private UserShortDto booker;
     private BookingStatus status;
 
+    public BookingPartialDto(long id, LocalDateTime start, LocalDateTime end, long itemId, String itemName,
+                             long bookerId, String bookerName, BookingStatus status) {
+        this(id, start, end, new ItemShortDto(itemId, itemName), new UserShortDto(bookerId, bookerName), status);
+    }
+
     public record ItemShortDto(long id, String name) {
     }
 
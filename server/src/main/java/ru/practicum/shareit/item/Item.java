@@ -7,6 +7,8 @@ import ru.practicum.shareit.user.User;
 
 /**
  * Класс—модель данных приложения, дающий описание объекту Item.
+ * Идентификатор выдается последовательностью items_seq, как и у User.
+ * Версия защищает от потери изменений при одновременном редактировании вещи.
  */
 
 @Entity
@@ -19,7 +21,8 @@ import ru.practicum.shareit.user.User;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(
             name = "id",
             nullable = false,
@@ -45,7 +48,7 @@ public class Item {
     )
     private Boolean available;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(
             name = "owner_id",
             nullable = false
@@ -57,4 +60,11 @@ public class Item {
             name = "request_id"
     )
     private ItemRequest request;
+
+    @Version
+    @Column(
+            name = "version",
+            nullable = false
+    )
+    private Long version;
 }
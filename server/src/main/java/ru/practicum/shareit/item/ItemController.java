@@ -2,16 +2,23 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * ItemController — класс-контроллер, предоставляющий REST API для работы с данными типа Item и Comment.
  * Базовый путь - /items.
  * Обмен данными осуществляется с микросервисом shareIt Gateway
+ * Ответ GET /items/{itemId} содержит ETag из версий вещи, комментариев и, для владельца, бронирований;
+ * при совпадении с If-None-Match возвращается 304 без загрузки комментариев и бронирований.
+ * GET /items?ids=1,2,3 возвращает несколько Item за один запрос с теми же правилами видимости бронирований.
  */
 
 @RestController
@@ -28,19 +35,32 @@ public class ItemController {
     @ResponseStatus(HttpStatus.CREATED)
     public ItemPartialDto addItem(@RequestBody ItemCreateDto item,
                                   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление Item");
+        log.debug("Запрос на добавление Item");
         ItemPartialDto itemPartialDto = itemService.addItem(userId, item);
         log.info("Успешно добавлен Item c ID: {}", itemPartialDto.getId());
         return itemPartialDto;
     }
 
+    @PostMapping(
+            path = "/batch",
+            consumes = "application/json"
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    public Collection<ItemPartialDto> addItems(@RequestBody List<ItemCreateDto> items,
+                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на добавление {} Item, user ID: {}", items.size(), userId);
+        Collection<ItemPartialDto> itemPartialDtos = itemService.addItems(userId, items);
+        log.info("Успешно добавлено {} Item, user ID: {}", itemPartialDtos.size(), userId);
+        return itemPartialDtos;
+    }
+
     @PatchMapping(
             path = "/{itemId}",
             consumes = "application/json"
     )
     public ItemPartialDto updateItem(@PathVariable Long itemId, @RequestBody ItemUpdateDto item,
                                      @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на обновление Item c ID: {}", item.getId());
+        log.debug("Запрос на обновление Item c ID: {}", item.getId());
         item.setId(itemId);
         ItemPartialDto itemPartialDto = itemService.updateItem(userId, item);
         log.info("Успешно обновлен Item c ID: {}", itemPartialDto.getId());
@@ -49,29 +69,61 @@ public class ItemController {
 
     @GetMapping(path = "/{itemId}")
     public ItemInfoDto getItemById(@PathVariable Long itemId,
-                                   @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение Item по ID: {}, user ID: {}", itemId, userId);
+                                   @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                   WebRequest webRequest) {
+        log.debug("Запрос на получение Item по ID: {}, user ID: {}", itemId, userId);
+        if (webRequest.checkNotModified(itemService.getItemEtag(userId, itemId))) {
+            log.info("Item с ID: {} не изменился", itemId);
+            return null;
+        }
         ItemInfoDto itemInfoDto = itemService.getItemById(userId, itemId);
         log.info("Успешно получен Item с ID: {}", itemId);
         return itemInfoDto;
     }
 
+    @GetMapping(params = "ids")
+    public Collection<ItemInfoDto> getItemsByIds(@RequestParam(name = "ids") List<Long> ids,
+                                                 @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.debug("Запрос на получение {} Items по списку ID, user ID: {}", ids.size(), userId);
+        Collection<ItemInfoDto> items = itemService.getItemsByIds(userId, ids);
+        log.info("Успешно получено {} Items по списку ID, user ID: {}", items.size(), userId);
+        return items;
+    }
+
     @GetMapping
     public Collection<ItemInfoDto> getAllItemsByOwnerId(@RequestHeader(name = "X-Sharer-User-Id") Long ownerId) {
-        log.info("Запрос на получение списка всех Items по owner ID: {}", ownerId);
+        log.debug("Запрос на получение списка всех Items по owner ID: {}", ownerId);
         Collection<ItemInfoDto> items = itemService.getAllItemsByOwnerId(ownerId);
         log.info("Успешно получен список всех Items с owner ID: {}", ownerId);
         return items;
     }
 
     @GetMapping(path = "/search")
-    public Collection<ItemPartialDto> getItemsByTextQuery(@RequestParam(name = "text") String text) {
-        log.info("Запрос на получение списка Items по запросу: {}", text);
-        Collection<ItemPartialDto> items = itemService.getItemsByTextQuery(text);
+    public Collection<ItemPartialDto> getItemsByTextQuery(
+            @RequestParam(name = "text") String text,
+            @RequestParam(name = "availableFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableFrom,
+            @RequestParam(name = "availableTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableTo) {
+        log.debug("Запрос на получение списка Items по запросу: {}, свободных с {} по {}",
+                text, availableFrom, availableTo);
+        Collection<ItemPartialDto> items = itemService.getItemsByTextQuery(text, availableFrom, availableTo);
         log.info("Успешно получен список Items по запросу: {}", text);
         return items;
     }
 
+    @GetMapping(path = "/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Запрос на получение занятости Item с ID: {} с {} по {}", itemId, from, to);
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemId, from, to);
+        log.info("Успешно получена занятость Item с ID: {}, занятых периодов: {}",
+                itemId, availability.getBusy().size());
+        return availability;
+    }
+
     @PostMapping(
             path = "/{itemId}/comment",
             consumes = "application/json"
@@ -80,7 +132,7 @@ public class ItemController {
     public CommentPartialDto addComment(@PathVariable Long itemId,
                                         @RequestBody CommentCreateDto comment,
                                         @RequestHeader(name = "X-Sharer-User-Id") Long authorId) {
-        log.info("Запрос на добавление Comment. Item ID: {}, author ID: {}", itemId, authorId);
+        log.debug("Запрос на добавление Comment. Item ID: {}, author ID: {}", itemId, authorId);
         CommentPartialDto commentPartialDto = itemService.addComment(itemId, authorId, comment);
         log.info("Успешно добавлен Comment c ID: {}", commentPartialDto.getId());
         return commentPartialDto;
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.ItemBookingView;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
@@ -63,18 +64,28 @@ public final class ItemMapper {
                         nextBooking.getEnd(), nextBooking.getStatus());
             }
         }
+        return toItemInfoDto(item, lastBookingDto, nextBookingDto, comments);
+    }
 
+    public static ItemInfoDto toItemInfoDto(Item item, ItemInfoDto.BookingShortDto lastBooking,
+                                            ItemInfoDto.BookingShortDto nextBooking,
+                                            List<CommentPartialDto> comments) {
         return ItemInfoDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(comments)
-                .lastBooking(lastBookingDto)
-                .nextBooking(nextBookingDto)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .build();
     }
 
+    public static ItemInfoDto.BookingShortDto toBookingShortDto(ItemBookingView booking) {
+        return new ItemInfoDto.BookingShortDto(booking.getId(), booking.getStartDateTime(),
+                booking.getEndDateTime(), booking.getStatus());
+    }
+
     private static Booking getLastBooking(List<Booking> bookings) {
         return bookings.stream()
                 .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
@@ -1,21 +1,47 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Интерфейс, определяющий набор стандартных и дополнительных действий хранения и поиска
- * с объектом типа Item, используя запросные методы и jpql
+ * с объектом типа Item, используя запросные методы и jpql.
+ * Поиск по тексту упорядочен по релевантности: точное совпадение имени, совпадение начала имени,
+ * вхождение в имя, вхождение в описание.
+ * Поиск по необязательной ссылке request сравнивает внешний ключ items.request_id,
+ * производный запрос соединял бы таблицу requests и не использовал индекс ix_items_request.
+ * Результаты поиска проецируются сразу в ItemPartialDto без загрузки entity.
+ * Фильтр доступности на интервале исключает вещи с подтвержденными бронированиями, пересекающими интервал,
+ * подзапросом NOT EXISTS в том же запросе; подзапрос читает индекс ix_bookings_item_start.
+ * Версии вещи и ее комментариев для ETag читаются одним запросом без загрузки комментариев.
+ * Пакетное чтение по списку ID загружает вещи вместе с владельцами одним запросом IN.
  */
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String ITEM_DTO_SELECT = "SELECT new ru.practicum.shareit.item.dto.ItemPartialDto(" +
+            "it.id, it.name, it.description, it.available) " +
+            "FROM Item as it ";
+    String TEXT_MATCH = "((lower(it.name) LIKE lower(concat('%', :text, '%'))) " +
+            "OR (lower(it.description) LIKE lower(concat('%', :text, '%')))) ";
+    String NOT_APPROVED_BETWEEN = "NOT EXISTS (SELECT b.id FROM Booking AS b " +
+            "WHERE b.item.id = it.id AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND b.start < :to AND b.end > :from) ";
+    String RELEVANCE_ORDER = "ORDER BY CASE " +
+            "WHEN lower(it.name) = lower(:text) THEN 0 " +
+            "WHEN lower(it.name) LIKE lower(concat(:text, '%')) THEN 1 " +
+            "WHEN lower(it.name) LIKE lower(concat('%', :text, '%')) THEN 2 " +
+            "ELSE 3 END, it.id";
 
     @Override
     @EntityGraph(attributePaths = {"owner"}, type = EntityGraph.EntityGraphType.LOAD)
@@ -23,14 +49,51 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerIdOrderByIdAsc(Long ownerId);
 
+    @EntityGraph(attributePaths = {"owner"}, type = EntityGraph.EntityGraphType.LOAD)
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @Query(ITEM_DTO_SELECT +
+            "WHERE it.available = true AND " + TEXT_MATCH +
+            RELEVANCE_ORDER
+    )
+    List<ItemPartialDto> findByTextQuery(@Param("text") String textQuery, Limit limit);
+
+    @Query(ITEM_DTO_SELECT +
+            "WHERE it.available = true AND " + TEXT_MATCH +
+            "AND " + NOT_APPROVED_BETWEEN +
+            RELEVANCE_ORDER
+    )
+    List<ItemPartialDto> findAvailableByTextQuery(@Param("text") String textQuery,
+                                                  @Param("from") LocalDateTime availableFrom,
+                                                  @Param("to") LocalDateTime availableTo,
+                                                  Limit limit);
+
+    @Query(ITEM_DTO_SELECT +
+            "WHERE it.id IN :ids"
+    )
+    List<ItemPartialDto> findPartialDtoByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(ITEM_DTO_SELECT +
+            "WHERE it.id IN :ids AND " + NOT_APPROVED_BETWEEN
+    )
+    List<ItemPartialDto> findAvailablePartialDtoByIdIn(@Param("ids") List<Long> ids,
+                                                       @Param("from") LocalDateTime availableFrom,
+                                                       @Param("to") LocalDateTime availableTo);
+
+    @EntityGraph(attributePaths = {"owner", "request"}, type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT it " +
             "FROM Item as it " +
-            "WHERE it.available = true " +
-            "AND ((lower(it.name) LIKE lower(concat('%', :text, '%'))) " +
-            "OR (lower(it.description) LIKE lower(concat('%', :text, '%'))))"
+            "WHERE it.request.id IN :ids"
     )
-    List<Item> findByTextQuery(@Param("text") String textQuery);
+    List<Item> findByRequestIdIn(@Param("ids") List<Long> ids);
 
-    @EntityGraph(attributePaths = {"owner", "request"}, type = EntityGraph.EntityGraphType.LOAD)
-    List<Item> findByRequestIdIn(List<Long> ids);
+    @Query("SELECT it.owner.id AS ownerId, it.version AS version, " +
+            "(SELECT COUNT(c) FROM Comment AS c WHERE c.item.id = it.id) AS commentsCount, " +
+            "(SELECT COALESCE(MAX(c.id), 0) FROM Comment AS c WHERE c.item.id = it.id) AS lastCommentId, " +
+            "(SELECT COALESCE(SUM(c.author.version), 0) FROM Comment AS c WHERE c.item.id = it.id) " +
+            "AS commentAuthorsVersion " +
+            "FROM Item AS it " +
+            "WHERE it.id = :itemId"
+    )
+    Optional<ItemRevisionView> findRevisionById(@Param("itemId") Long itemId);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Проекция версий вещи и ее комментариев для вычисления ETag ответа GET /items/{itemId}.
+ * Комментарии не изменяются, поэтому их набор однозначно задается числом и последним идентификатором,
+ * а имена авторов - суммой версий авторов.
+ */
+
+public interface ItemRevisionView {
+
+    Long getOwnerId();
+
+    Long getVersion();
+
+    Long getCommentsCount();
+
+    Long getLastCommentId();
+
+    Long getCommentAuthorsVersion();
+}
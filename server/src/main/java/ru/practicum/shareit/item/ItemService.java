@@ -2,7 +2,9 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Интерфейс, определяющий набор методов для связи контроллера Item и репозитория Item,
@@ -13,13 +15,22 @@ public interface ItemService {
 
     ItemPartialDto addItem(Long userId, ItemCreateDto item);
 
+    Collection<ItemPartialDto> addItems(Long userId, List<ItemCreateDto> items);
+
     ItemPartialDto updateItem(Long userId, ItemUpdateDto item);
 
     ItemInfoDto getItemById(Long userId, Long itemId);
 
+    Collection<ItemInfoDto> getItemsByIds(Long userId, List<Long> itemIds);
+
+    String getItemEtag(Long userId, Long itemId);
+
     Collection<ItemInfoDto> getAllItemsByOwnerId(Long ownerId);
 
-    Collection<ItemPartialDto> getItemsByTextQuery(String textQuery);
+    Collection<ItemPartialDto> getItemsByTextQuery(String textQuery, LocalDateTime availableFrom,
+                                                   LocalDateTime availableTo);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentPartialDto addComment(Long itemId, Long authorId, CommentCreateDto comment);
 }
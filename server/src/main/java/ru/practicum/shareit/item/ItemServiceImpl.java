@@ -5,25 +5,31 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingView;
+import ru.practicum.shareit.booking.ItemBookingsRevisionView;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ItemServiceImpl — класс, реализующий интерфейс ItemService.
  * Содержит всю бизнес-логику по работе с объектами Item и Comment:
- * добавление нового Item и Comment, обновление данных по Item,
- * получение Item по ID, получение списка всех Item пользователя,
- * получение списка Item по текстовому параметру, содержащемуся в имени или описании
+ * добавление нового Item и Comment, добавление списка Item одной транзакцией, обновление данных по Item,
+ * получение Item по ID и по списку ID, получение списка всех Item пользователя,
+ * получение списка Item по текстовому параметру, содержащемуся в имени или описании,
+ * в том числе только не забронированных на заданном интервале,
+ * через выбранную реализацию ItemSearchEngine, получение занятых периодов Item через BookingCalendar
  * Выполняет запросы к базе данных
  * Определяет транзакционные методы.
  */
@@ -37,11 +43,13 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingCalendar bookingCalendar;
 
     @Override
     @Transactional
     public ItemPartialDto addItem(Long userId, ItemCreateDto itemCreateDto) {
-        User owner = userRepository.findById(userId)
+        User owner = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
         ItemRequest itemRequest = null;
         if (itemCreateDto.getRequestId() != null) {
@@ -50,9 +58,41 @@ public class ItemServiceImpl implements ItemService {
                             + itemCreateDto.getRequestId()));
         }
         Item item = itemRepository.save(ItemMapper.toItem(itemCreateDto, owner, itemRequest));
+        itemSearchEngine.index(item);
         return ItemMapper.toItemPartialDto(item);
     }
 
+    @Override
+    @Transactional
+    public Collection<ItemPartialDto> addItems(Long userId, List<ItemCreateDto> itemCreateDtos) {
+        User owner = userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        List<Long> requestIds = itemCreateDtos.stream()
+                .map(ItemCreateDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>(itemCreateDtos.size());
+        for (ItemCreateDto itemCreateDto : itemCreateDtos) {
+            ItemRequest itemRequest = null;
+            if (itemCreateDto.getRequestId() != null) {
+                itemRequest = itemRequests.get(itemCreateDto.getRequestId());
+                if (itemRequest == null) {
+                    throw new NotFoundException("ItemRequest not found by id: " + itemCreateDto.getRequestId());
+                }
+            }
+            items.add(ItemMapper.toItem(itemCreateDto, owner, itemRequest));
+        }
+        List<Item> savedItems = itemRepository.saveAll(items);
+        savedItems.forEach(itemSearchEngine::index);
+        return savedItems.stream()
+                .map(ItemMapper::toItemPartialDto)
+                .toList();
+    }
+
     @Override
     @Transactional
     public ItemPartialDto updateItem(Long userId, ItemUpdateDto itemUpdateDto) {
@@ -72,6 +112,7 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemUpdateDto.getAvailable());
         }
         Item updatedItem = itemRepository.save(item);
+        itemSearchEngine.index(updatedItem);
         return ItemMapper.toItemPartialDto(updatedItem);
     }
 
@@ -87,46 +128,149 @@ public class ItemServiceImpl implements ItemService {
             List<Booking> bookings = bookingRepository.findByItemId(itemId);
             return ItemMapper.toItemInfoDto(item, bookings, comments);
         } else {
-            User user = userRepository.findById(userId)
+            userRepository.findCachedById(userId)
                     .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
             return ItemMapper.toItemInfoDto(item, List.of(), comments);
         }
     }
 
+    /**
+     * Пакетный аналог getItemById: вещи с владельцами, комментарии и бронирования собственных вещей
+     * пользователя читаются тремя запросами IN независимо от числа ID. Если хотя бы одна вещь не найдена,
+     * выбрасывается NotFoundException со списком отсутствующих ID. Порядок ответа совпадает с порядком ID,
+     * повторяющиеся ID возвращаются один раз.
+     */
+    @Override
+    public Collection<ItemInfoDto> getItemsByIds(Long userId, List<Long> itemIds) {
+        List<Long> ids = itemIds.stream()
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !items.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Items not found by ids: " + missingIds);
+        }
+
+        List<Long> ownItemIds = items.values().stream()
+                .filter(item -> userId.equals(item.getOwner().getId()))
+                .map(Item::getId)
+                .toList();
+        if (ownItemIds.size() < items.size()) {
+            userRepository.findCachedById(userId)
+                    .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        }
+        Map<Long, List<Booking>> bookings = ownItemIds.isEmpty()
+                ? Map.of()
+                : bookingRepository.findByItemIdIn(ownItemIds).stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Long, List<CommentPartialDto>> comments = commentRepository.findByItemIdInOrderByItemIdAsc(ids)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentPartialDto, Collectors.toList())));
+
+        Collection<ItemInfoDto> itemInfoDtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            itemInfoDtos.add(ItemMapper.toItemInfoDto(items.get(id), bookings.getOrDefault(id, List.of()),
+                    comments.getOrDefault(id, List.of())));
+        }
+        return itemInfoDtos;
+    }
+
+    @Override
+    public String getItemEtag(Long userId, Long itemId) {
+        ItemRevisionView item = itemRepository.findRevisionById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found by id: " + itemId));
+        String etag = "item-" + itemId + "-" + item.getVersion() + "-c" + item.getCommentsCount() + "." +
+                item.getLastCommentId() + "." + item.getCommentAuthorsVersion();
+        if (!userId.equals(item.getOwnerId())) {
+            userRepository.findCachedById(userId)
+                    .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+            return etag;
+        }
+        ItemBookingsRevisionView bookings = bookingRepository.findRevisionByItemId(itemId, LocalDateTime.now());
+        return etag + "-b" + bookings.getCount() + "." + bookings.getLastId() + "." + bookings.getVersion() + "." +
+                bookings.getStartedCount();
+    }
+
     @Override
     public Collection<ItemInfoDto> getAllItemsByOwnerId(Long ownerId) {
-        User owner = userRepository.findById(ownerId)
+        userRepository.findCachedById(ownerId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + ownerId));
 
         List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(ownerId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .toList();
-        List<Booking> bookings = bookingRepository.findByItemIdInOrderByItemIdAsc(itemIds);
-        List<Comment> comments = commentRepository.findByItemIdInOrderByItemIdAsc(itemIds);
-        Collection<ItemInfoDto> itemInfoDtos = new ArrayList<>();
 
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemInfoDto.BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, ItemInfoDto.BookingShortDto> nextBookings = new HashMap<>();
+        for (ItemBookingView booking : bookingRepository.findLastAndNextBookingsByOwnerId(ownerId, now)) {
+            if (booking.getStartDateTime().isBefore(now)) {
+                lastBookings.put(booking.getItemId(), ItemMapper.toBookingShortDto(booking));
+            } else {
+                nextBookings.put(booking.getItemId(), ItemMapper.toBookingShortDto(booking));
+            }
+        }
+        Map<Long, List<CommentPartialDto>> comments = commentRepository.findByItemIdInOrderByItemIdAsc(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentPartialDto, Collectors.toList())));
+
+        Collection<ItemInfoDto> itemInfoDtos = new ArrayList<>(items.size());
         for (Item item : items) {
-            List<Booking> itemBookings = bookings.stream()
-                    .filter((b) -> b.getItem().getId().equals(item.getId()))
-                    .toList();
-            List<CommentPartialDto> itemComments = comments.stream()
-                    .filter((c) -> c.getItem().getId().equals(item.getId()))
-                    .map(CommentMapper::toCommentPartialDto)
-                    .toList();
-            itemInfoDtos.add(ItemMapper.toItemInfoDto(item, itemBookings, itemComments));
+            itemInfoDtos.add(ItemMapper.toItemInfoDto(item, lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId()), comments.getOrDefault(item.getId(), List.of())));
         }
         return itemInfoDtos;
     }
 
     @Override
-    public Collection<ItemPartialDto> getItemsByTextQuery(String textQuery) {
+    public Collection<ItemPartialDto> getItemsByTextQuery(String textQuery, LocalDateTime availableFrom,
+                                                          LocalDateTime availableTo) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new ValidationException("Parameters availableFrom and availableTo must be set together");
+        }
         if (textQuery.isBlank()) {
             return List.of();
         }
-        return itemRepository.findByTextQuery(textQuery).stream()
-                .map(ItemMapper::toItemPartialDto)
+        if (availableFrom == null) {
+            return itemSearchEngine.search(textQuery);
+        }
+        if (!availableFrom.isBefore(availableTo)) {
+            throw new ValidationException("Availability interval start " + availableFrom +
+                    " is not before end " + availableTo);
+        }
+        return itemSearchEngine.searchAvailable(textQuery, availableFrom, availableTo);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability interval start " + from + " is not before end " + to);
+        }
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found by id: " + itemId));
+        List<ItemAvailabilityDto.PeriodDto> busy = bookingCalendar.getBusyPeriods(itemId, from, to)
+                .stream()
+                .map(period -> new ItemAvailabilityDto.PeriodDto(period.start(), period.end()))
                 .toList();
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .available(Boolean.TRUE.equals(item.getAvailable()) && busy.isEmpty())
+                .busy(busy)
+                .build();
     }
 
     @Override
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data transfer object календаря занятости объекта Item на интервале [from, to).
+ * Поле available истинно, если вещь доступна для аренды и на интервале нет занятых периодов.
+ * Список busy содержит периоды бронирований в статусах WAITING и APPROVED в порядке начала.
+ */
+
+@Getter(AccessLevel.PUBLIC)
+@Setter(AccessLevel.PUBLIC)
+@Builder
+public class ItemAvailabilityDto {
+    private long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean available;
+    private List<PeriodDto> busy;
+
+    public record PeriodDto(LocalDateTime start, LocalDateTime end) {
+    }
+}
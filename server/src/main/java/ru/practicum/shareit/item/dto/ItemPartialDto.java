@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,11 +10,13 @@ import lombok.Setter;
  * Data transfer object объекта Item, используемый для ответа на запросы.
  * Все поля объекта заполняются полностью, отсутствовать не могут.
  * Частично используются примитивные типы данных для улучшения быстродействия.
+ * Конструктор со всеми полями используется в jpql-выражениях SELECT new.
  */
 
 @Getter(AccessLevel.PUBLIC)
 @Setter(AccessLevel.PUBLIC)
 @Builder
+@AllArgsConstructor
 public class ItemPartialDto {
     private long id;
     private String name;
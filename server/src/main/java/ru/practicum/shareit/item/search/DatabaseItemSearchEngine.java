@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск вещей запросом к базе данных.
+ * В PostgreSQL условие lower(...) LIKE '%text%' обслуживается GIN-индексами pg_trgm
+ * (миграция V4__item_search_trgm_indexes), поэтому поиск не требует последовательного чтения таблицы items.
+ */
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+
+    public DatabaseItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${shareit.search.max-results:100}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<ItemPartialDto> search(String textQuery) {
+        return itemRepository.findByTextQuery(textQuery, Limit.of(maxResults));
+    }
+
+    @Override
+    public List<ItemPartialDto> searchAvailable(String textQuery, LocalDateTime availableFrom,
+                                                LocalDateTime availableTo) {
+        return itemRepository.findAvailableByTextQuery(textQuery, availableFrom, availableTo, Limit.of(maxResults));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Встроенный поиск вещей по инвертированному индексу триграмм, хранящемуся в памяти приложения.
+ * Кандидаты определяются пересечением списков вещей по триграммам запроса, после чего
+ * проверяется вхождение подстроки, поэтому время поиска зависит от числа совпадений, а не от размера каталога.
+ * Индекс строится при старте и обновляется после фиксации транзакций, добавляющих и изменяющих вещи.
+ * Используется для встроенной базы H2 и в тестовом профиле.
+ */
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_SIZE = 3;
+    // ограничение числа параметров IN в запросе доступности (в PostgreSQL не больше 32767)
+    private static final int MAX_AVAILABILITY_CHUNK = 1000;
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${shareit.search.max-results:100}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        itemRepository.findAll().forEach(item -> put(toIndexedItem(item)));
+    }
+
+    @Override
+    public List<ItemPartialDto> search(String textQuery) {
+        List<Long> ids = searchIds(textQuery.toLowerCase(Locale.ROOT), maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemPartialDto> found = itemRepository.findPartialDtoByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemPartialDto::getId, Function.identity()));
+        List<ItemPartialDto> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            ItemPartialDto item = found.get(id);
+            if (item == null) {
+                remove(id);
+            } else {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ранжирование выполняется по индексу в памяти без ограничения числа совпадений, бронирования
+     * проверяются запросами по частям ранжированного списка (не больше удвоенного shareit.search.max-results
+     * и MAX_AVAILABILITY_CHUNK ID в IN), пока не набрано shareit.search.max-results доступных вещей.
+     */
+    @Override
+    public List<ItemPartialDto> searchAvailable(String textQuery, LocalDateTime availableFrom,
+                                                LocalDateTime availableTo) {
+        List<Long> ids = searchIds(textQuery.toLowerCase(Locale.ROOT), Integer.MAX_VALUE);
+        int chunkSize = (int) Math.min(Math.max(maxResults, 1) * 2L, MAX_AVAILABILITY_CHUNK);
+        List<ItemPartialDto> result = new ArrayList<>();
+        for (int from = 0; from < ids.size() && result.size() < maxResults; from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Map<Long, ItemPartialDto> found = itemRepository.findAvailablePartialDtoByIdIn(chunk, availableFrom,
+                            availableTo).stream()
+                    .collect(Collectors.toMap(ItemPartialDto::getId, Function.identity()));
+            for (Long id : chunk) {
+                ItemPartialDto item = found.get(id);
+                if (item != null && result.size() < maxResults) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Внутри транзакции вещь попадает в индекс только после ее фиксации: откат вставки или изменения,
+     * в том числе конфликт версий при фиксации, не меняет результаты поиска.
+     */
+    @Override
+    public void index(Item item) {
+        IndexedItem indexedItem = toIndexedItem(item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(indexedItem);
+                }
+            });
+        } else {
+            put(indexedItem);
+        }
+    }
+
+    private void put(IndexedItem indexedItem) {
+        lock.writeLock().lock();
+        try {
+            removeFromPostings(items.put(indexedItem.id(), indexedItem));
+            for (String gram : grams(indexedItem.name(), indexedItem.description())) {
+                postings.computeIfAbsent(gram, k -> new HashSet<>()).add(indexedItem.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> searchIds(String text, int limit) {
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = candidates(text);
+            List<IndexedItem> matched = new ArrayList<>();
+            for (Long id : candidates) {
+                IndexedItem item = items.get(id);
+                if (item.available() && rank(item, text) < Integer.MAX_VALUE) {
+                    matched.add(item);
+                }
+            }
+            return matched.stream()
+                    .sorted(Comparator.comparingInt((IndexedItem item) -> rank(item, text))
+                            .thenComparingLong(IndexedItem::id))
+                    .limit(limit)
+                    .map(IndexedItem::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String text) {
+        if (text.length() < GRAM_SIZE) {
+            return items.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(text)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeFromPostings(items.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromPostings(IndexedItem item) {
+        if (item == null) {
+            return;
+        }
+        for (String gram : grams(item.name(), item.description())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(item.id());
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ранг совпадения, согласованный с ItemRepository.findByTextQuery:
+     * 0 - имя совпадает, 1 - имя начинается с запроса, 2 - имя содержит запрос, 3 - описание содержит запрос.
+     */
+    private static int rank(IndexedItem item, String text) {
+        if (item.name().equals(text)) {
+            return 0;
+        }
+        if (item.name().startsWith(text)) {
+            return 1;
+        }
+        if (item.name().contains(text)) {
+            return 2;
+        }
+        if (item.description().contains(text)) {
+            return 3;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static IndexedItem toIndexedItem(Item item) {
+        return new IndexedItem(item.getId(), item.getName().toLowerCase(Locale.ROOT),
+                item.getDescription().toLowerCase(Locale.ROOT), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private static Set<String> grams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM_SIZE));
+            }
+        }
+        return grams;
+    }
+
+    private record IndexedItem(long id, String name, String description, boolean available) {
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс механизма поиска доступных вещей по тексту, содержащемуся в имени или описании.
+ * Реализация выбирается свойством shareit.search.engine: database (по умолчанию) или in-memory.
+ * Результаты упорядочены по релевантности и ограничены свойством shareit.search.max-results,
+ * возвращаются сразу в виде ItemPartialDto.
+ */
+
+public interface ItemSearchEngine {
+
+    List<ItemPartialDto> search(String textQuery);
+
+    /**
+     * Поиск, исключающий вещи с подтвержденными бронированиями, пересекающими интервал [availableFrom, availableTo).
+     */
+    List<ItemPartialDto> searchAvailable(String textQuery, LocalDateTime availableFrom, LocalDateTime availableTo);
+
+    /**
+     * Вызывается после сохранения новой или измененной вещи, в том числе внутри транзакции
+     * до ее фиксации.
+     */
+    void index(Item item);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.pagination;
+
+import java.util.List;
+
+/**
+ * Страница результатов keyset-пагинации.
+ * nextCursor - токен продолжения для запроса следующей страницы, null если страница последняя.
+ */
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
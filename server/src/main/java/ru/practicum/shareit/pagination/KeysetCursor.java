@@ -0,0 +1,57 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Утилитный класс для преобразования позиции keyset-пагинации (дата-время, ID)
+ * в непрозрачный для клиента токен продолжения и обратно.
+ * Токен - строка Base64 URL-safe без выравнивания, пригодная для передачи в параметрах запроса.
+ */
+
+public final class KeysetCursor {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String ID_PROPERTY = "id";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static String encode(LocalDateTime dateTime, long id) {
+        String raw = dateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String cursor, String dateTimeProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            LocalDateTime dateTime = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return ScrollPosition.forward(Map.<String, Object>of(dateTimeProperty, dateTime, ID_PROPERTY, id));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Bad cursor param: " + cursor);
+        }
+    }
+
+    public static int checkPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size param must be between 1 and " + MAX_PAGE_SIZE + ": " + size);
+        }
+        return size;
+    }
+}
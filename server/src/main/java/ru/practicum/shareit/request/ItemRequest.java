@@ -40,7 +40,7 @@ public class ItemRequest {
     )
     private LocalDateTime created;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(
             name = "requester_id",
             nullable = false
@@ -1,19 +1,35 @@
 package ru.practicum.shareit.request;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
 /**
  * ItemRequestController — класс-контроллер, предоставляющий REST API для работы с данными типа ItemRequest.
  * Базовый путь - /requests.
  * Обмен данными осуществляется с микросервисом shareIt Gateway
+ * Ответы GET /requests и GET /requests/{requestId} содержат ETag из версий запросов и вещей по ним,
+ * при совпадении с If-None-Match возвращается 304.
+ * GET /requests/all выдает список целиком, либо постранично при указании параметров size и/или cursor
+ * с токеном следующей страницы в заголовке X-Next-Cursor. С Accept: application/x-ndjson тот же список
+ * передается потоком: по одному JSON-объекту в строке, по мере чтения строк из базы данных;
+ * ответ об ошибке остается в формате JSON, поэтому Accept должен допускать и application/json.
  */
 
 @RestController
@@ -24,42 +40,91 @@ import java.util.Collection;
         produces = "application/json"
 )
 public class ItemRequestController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemRequestService itemRequestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(consumes = "application/json")
     @ResponseStatus(HttpStatus.CREATED)
     public ItemRequestShortDto addItemRequest(@RequestBody ItemRequestCreateDto itemRequest,
                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на добавление ItemRequest: {}, user ID: {}", itemRequest, userId);
+        log.debug("Запрос на добавление ItemRequest: {}, user ID: {}", itemRequest, userId);
         ItemRequestShortDto itemRequestShortDto = itemRequestService.addItemRequest(userId, itemRequest);
-        log.info("Успешно добавлен ItemRequest: {}, user ID: {}", itemRequestShortDto, userId);
+        log.info("Успешно добавлен ItemRequest c ID: {}, user ID: {}", itemRequestShortDto.getId(), userId);
         return itemRequestShortDto;
     }
 
     @GetMapping
     public Collection<ItemRequestDto> getAllItemRequestsByOwnerId(
-            @RequestHeader(name = "X-Sharer-User-Id") Long userId
+            @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+            WebRequest webRequest
     ) {
-        log.info("Запрос на получение ItemRequests пользователя с ID: {}", userId);
+        log.debug("Запрос на получение ItemRequests пользователя с ID: {}", userId);
+        if (webRequest.checkNotModified(itemRequestService.getItemRequestsEtag(userId))) {
+            log.info("ItemRequests пользователя с ID: {} не изменились", userId);
+            return null;
+        }
         Collection<ItemRequestDto> itemRequests = itemRequestService.getAllItemRequestsByOwnerId(userId);
         log.info("Успешно получены ItemRequests пользователя с ID: {}", userId);
         return itemRequests;
     }
 
     @GetMapping(path = "/all")
-    public Collection<ItemRequestShortDto> getAllItemRequestsOfOtherUsers(
+    public ResponseEntity<Collection<ItemRequestShortDto>> getAllItemRequestsOfOtherUsers(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
             @RequestHeader(name = "X-Sharer-User-Id") Long userId
     ) {
-        log.info("Запрос на получение всех ItemRequests кроме пользователя с ID: {}", userId);
-        Collection<ItemRequestShortDto> itemRequests = itemRequestService.getAllItemRequestsOfOtherUsers(userId);
-        log.info("Успешно получены все ItemRequests кроме пользователя с ID: {}", userId);
-        return itemRequests;
+        log.debug("Запрос на получение всех ItemRequests кроме пользователя с ID: {}", userId);
+        if (cursor == null && size == null) {
+            Collection<ItemRequestShortDto> itemRequests = itemRequestService.getAllItemRequestsOfOtherUsers(userId);
+            log.info("Успешно получены все ItemRequests кроме пользователя с ID: {}", userId);
+            return ResponseEntity.ok(itemRequests);
+        }
+        CursorPage<ItemRequestShortDto> page = itemRequestService.getAllItemRequestsOfOtherUsers(userId, cursor, size);
+        log.info("Успешно получена страница ItemRequests кроме пользователя с ID: {}", userId);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (page.hasNext()) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return responseBuilder.body(page.content());
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllItemRequestsOfOtherUsers(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                  HttpServletResponse response) throws IOException {
+        log.debug("Запрос на потоковое получение всех ItemRequests кроме пользователя с ID: {}", userId);
+        ObjectWriter writer = objectMapper.writerFor(ItemRequestShortDto.class);
+        // тип ответа задается с первой строкой, а генератор не закрывается при ошибке:
+        // пока ничего не записано, ответ об ошибке в формате JSON формирует ErrorHandler
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        itemRequestService.streamAllItemRequestsOfOtherUsers(userId, itemRequest -> {
+            if (response.getContentType() == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            }
+            try {
+                writer.writeValue(generator, itemRequest);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        generator.close();
+        log.info("Успешно переданы все ItemRequests кроме пользователя с ID: {}", userId);
     }
 
     @GetMapping(path = "/{requestId}")
     public ItemRequestDto getItemRequestById(@PathVariable Long requestId,
-                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Запрос на получение ItemRequest по ID: {}, user ID: {}", requestId, userId);
+                                             @RequestHeader("X-Sharer-User-Id") Long userId,
+                                             WebRequest webRequest) {
+        log.debug("Запрос на получение ItemRequest по ID: {}, user ID: {}", requestId, userId);
+        if (webRequest.checkNotModified(itemRequestService.getItemRequestEtag(userId, requestId))) {
+            log.info("ItemRequest с ID: {} не изменился", requestId);
+            return null;
+        }
         ItemRequestDto itemRequestDto = itemRequestService.getItemRequestById(userId, requestId);
         log.info("Успешно получен ItemRequest с ID: {}, user ID: {}", requestId, userId);
         return itemRequestDto;
@@ -8,7 +8,10 @@ import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Утилитный класс для взаимного преобразования объектов entity ItemRequest и
@@ -29,12 +32,26 @@ public final class ItemRequestMapper {
                 .build();
     }
 
+    /**
+     * Группировка вещей по ID запроса, в ответ на который они созданы. Выполняется один раз на список
+     * запросов, чтобы toItemRequestDto не просматривал все вещи для каждого запроса.
+     */
+    public static Map<Long, List<Item>> groupItemsByRequestId(Collection<Item> items) {
+        Map<Long, List<Item>> itemsByRequestId = new HashMap<>();
+        for (Item item : items) {
+            itemsByRequestId.computeIfAbsent(item.getRequest().getId(), id -> new ArrayList<>()).add(item);
+        }
+        return itemsByRequestId;
+    }
+
     public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<Item> allItems) {
-        List<Item> items = allItems.stream()
-                .filter(item -> item.getRequest().getId().equals(itemRequest.getId()))
-                .toList();
+        return toItemRequestDto(itemRequest, groupItemsByRequestId(allItems));
+    }
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, Map<Long, List<Item>> itemsByRequestId) {
+        List<Item> items = itemsByRequestId.getOrDefault(itemRequest.getId(), List.of());
 
-        List<ItemRequestDto.ItemShortDto> itemShortDtos = new ArrayList<>();
+        List<ItemRequestDto.ItemShortDto> itemShortDtos = new ArrayList<>(items.size());
         for (Item item : items) {
             ItemRequestDto.ItemShortDto itemShortDto = new ItemRequestDto.ItemShortDto(
                     item.getId(), item.getName(), item.getOwner().getId()
@@ -1,13 +1,27 @@
 package ru.practicum.shareit.request;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Интерфейс, определяющий набор стандартных и дополнительных действий хранения и поиска
- * с объектом типа ItemRequest, используя запросные методы и jpql
+ * с объектом типа ItemRequest, используя запросные методы и jpql.
+ * Список запросов других пользователей проецируется сразу в ItemRequestShortDto без загрузки entity:
+ * целиком, страницами keyset-пагинации по паре (created, id) (Window) или потоком строк курсора базы данных
+ * (Stream, читается порциями по 500 строк и должен закрываться внутри транзакции).
+ * Версии запросов и вещей по ним для ETag агрегируются без загрузки entity.
  */
 
 @Repository
@@ -15,5 +29,41 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    List<ItemRequest> findByRequesterIdNotOrderByCreatedDesc(Long requesterId);
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestShortDto(r.id, r.description, r.created) " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> :requesterId " +
+            "ORDER BY r.created DESC"
+    )
+    List<ItemRequestShortDto> findByRequesterIdNotOrderByCreatedDesc(@Param("requesterId") Long requesterId);
+
+    Window<ItemRequestShortDto> findByRequesterIdNotOrderByCreatedDescIdDesc(Long requesterId, ScrollPosition position,
+                                                                             Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestShortDto(r.id, r.description, r.created) " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> :requesterId " +
+            "ORDER BY r.created DESC, r.id DESC"
+    )
+    Stream<ItemRequestShortDto> streamByRequesterIdNot(@Param("requesterId") Long requesterId);
+
+    @Query("SELECT COUNT(r) AS count, COALESCE(MAX(r.id), 0) AS lastId, " +
+            "(SELECT COUNT(it) FROM Item AS it WHERE it.request.id = :requestId) AS itemsCount, " +
+            "(SELECT COALESCE(MAX(it.id), 0) FROM Item AS it WHERE it.request.id = :requestId) AS lastItemId, " +
+            "(SELECT COALESCE(SUM(it.version), 0) FROM Item AS it WHERE it.request.id = :requestId) AS itemsVersion " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.id = :requestId"
+    )
+    ItemRequestRevisionView findRevisionById(@Param("requestId") Long requestId);
+
+    @Query("SELECT COUNT(r) AS count, COALESCE(MAX(r.id), 0) AS lastId, " +
+            "(SELECT COUNT(it) FROM Item AS it WHERE it.request.requester.id = :requesterId) AS itemsCount, " +
+            "(SELECT COALESCE(MAX(it.id), 0) FROM Item AS it WHERE it.request.requester.id = :requesterId) " +
+            "AS lastItemId, " +
+            "(SELECT COALESCE(SUM(it.version), 0) FROM Item AS it WHERE it.request.requester.id = :requesterId) " +
+            "AS itemsVersion " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id = :requesterId"
+    )
+    ItemRequestRevisionView findRevisionByRequesterId(@Param("requesterId") Long requesterId);
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request;
+
+/**
+ * Проекция версий запросов и вещей, созданных по ним, для вычисления ETag ответов /requests.
+ * Запросы не изменяются после создания, вещи учитываются числом, последним идентификатором и суммой версий.
+ */
+
+public interface ItemRequestRevisionView {
+
+    Long getCount();
+
+    Long getLastId();
+
+    Long getItemsCount();
+
+    Long getLastItemId();
+
+    Long getItemsVersion();
+}
@@ -2,9 +2,11 @@ package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс, определяющий набор методов для связи контроллера ItemRequest и репозитория ItemRequest,
@@ -17,7 +19,15 @@ public interface ItemRequestService {
 
     Collection<ItemRequestDto> getAllItemRequestsByOwnerId(Long userId);
 
+    String getItemRequestsEtag(Long userId);
+
     Collection<ItemRequestShortDto> getAllItemRequestsOfOtherUsers(Long userId);
 
+    CursorPage<ItemRequestShortDto> getAllItemRequestsOfOtherUsers(Long userId, String cursor, Integer size);
+
+    void streamAllItemRequestsOfOtherUsers(Long userId, Consumer<ItemRequestShortDto> action);
+
     ItemRequestDto getItemRequestById(Long userId, Long requestId);
+
+    String getItemRequestEtag(Long userId, Long requestId);
 }
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
@@ -14,13 +19,17 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * ItemRequestServiceImpl — класс, реализующий интерфейс ItemRequestService.
  * Содержит всю бизнес-логику по работе с объектами ItemRequest:
  * добавление нового ItemRequest, получение ItemRequest по ID,
  * получение списка всех ItemRequest пользователя,
- * получение списка ItemRequest всех остальных пользователей, кроме запрашивающего.
+ * получение списка ItemRequest всех остальных пользователей, кроме запрашивающего,
+ * целиком, постранично по токену продолжения или построчно из курсора базы данных без сборки списка в памяти.
  * Выполняет запросы к базе данных
  * Определяет транзакционные методы.
  */
@@ -29,6 +38,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final String CREATED_PROPERTY = "created";
+
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
@@ -36,7 +47,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestShortDto addItemRequest(Long userId, ItemRequestCreateDto itemRequestCreateDto) {
-        User requester = userRepository.findById(userId)
+        User requester = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
         ItemRequest itemRequest =
                 itemRequestRepository.save(ItemRequestMapper.toItemRequest(itemRequestCreateDto, requester));
@@ -45,37 +56,88 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public Collection<ItemRequestDto> getAllItemRequestsByOwnerId(Long userId) {
-        User requester = userRepository.findById(userId)
+        userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
 
         List<ItemRequest> requests = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId);
         List<Long> requestIds = requests.stream()
                 .map(ItemRequest::getId)
                 .toList();
-        List<Item> items = itemRepository.findByRequestIdIn(requestIds);
+        Map<Long, List<Item>> itemsByRequestId =
+                ItemRequestMapper.groupItemsByRequestId(itemRepository.findByRequestIdIn(requestIds));
 
         return requests.stream()
-                .map(r -> ItemRequestMapper.toItemRequestDto(r, items))
+                .map(r -> ItemRequestMapper.toItemRequestDto(r, itemsByRequestId))
                 .toList();
     }
 
+    @Override
+    public String getItemRequestsEtag(Long userId) {
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        return "requests-" + userId + "-" + toEtagVersion(itemRequestRepository.findRevisionByRequesterId(userId));
+    }
+
     @Override
     public Collection<ItemRequestShortDto> getAllItemRequestsOfOtherUsers(Long userId) {
-        User requester = userRepository.findById(userId)
+        userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
-        List<ItemRequest> requests = itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(userId);
-        return requests.stream()
-                .map(ItemRequestMapper::toItemRequestShortDto)
-                .toList();
+        return itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(userId);
+    }
+
+    @Override
+    public CursorPage<ItemRequestShortDto> getAllItemRequestsOfOtherUsers(Long userId, String cursor, Integer size) {
+        Limit limit = Limit.of(KeysetCursor.checkPageSize(size));
+        ScrollPosition position = KeysetCursor.decode(cursor, CREATED_PROPERTY);
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+
+        Window<ItemRequestShortDto> requests =
+                itemRequestRepository.findByRequesterIdNotOrderByCreatedDescIdDesc(userId, position, limit);
+        String nextCursor = null;
+        if (requests.hasNext() && !requests.isEmpty()) {
+            ItemRequestShortDto last = requests.getContent().getLast();
+            nextCursor = KeysetCursor.encode(last.getCreated(), last.getId());
+        }
+        return new CursorPage<>(requests.getContent(), nextCursor);
+    }
+
+    /**
+     * Пользователь проверяется до чтения первой строки, поэтому NotFoundException выбрасывается
+     * раньше, чем action начнет писать ответ.
+     */
+    @Override
+    public void streamAllItemRequestsOfOtherUsers(Long userId, Consumer<ItemRequestShortDto> action) {
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        try (Stream<ItemRequestShortDto> requests = itemRequestRepository.streamByRequesterIdNot(userId)) {
+            requests.forEach(action);
+        }
     }
 
     @Override
     public ItemRequestDto getItemRequestById(Long userId, Long requestId) {
-        User user = userRepository.findById(userId)
+        userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("ItemRequest not found by id: " + requestId));
         List<Item> items = itemRepository.findByRequestIdIn(List.of(requestId));
         return ItemRequestMapper.toItemRequestDto(request, items);
     }
+
+    @Override
+    public String getItemRequestEtag(Long userId, Long requestId) {
+        userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        ItemRequestRevisionView revision = itemRequestRepository.findRevisionById(requestId);
+        if (revision.getCount() == 0) {
+            throw new NotFoundException("ItemRequest not found by id: " + requestId);
+        }
+        return "request-" + requestId + "-" + toEtagVersion(revision);
+    }
+
+    private static String toEtagVersion(ItemRequestRevisionView revision) {
+        return revision.getCount() + "." + revision.getLastId() + "-i" + revision.getItemsCount() + "." +
+                revision.getLastItemId() + "." + revision.getItemsVersion();
+    }
 }
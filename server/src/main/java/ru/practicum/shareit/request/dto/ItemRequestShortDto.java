@@ -8,11 +8,13 @@ import java.time.LocalDateTime;
  * Data transfer object объекта ItemRequest, используемый для ответа на запросы.
  * Все поля объекта заполняются полностью, отсутствовать не могут.
  * Частично используются примитивные типы данных для улучшения быстродействия.
+ * Конструктор со всеми полями используется в jpql-выражениях SELECT new.
  */
 
 @Getter(AccessLevel.PUBLIC)
 @Setter(AccessLevel.PUBLIC)
 @Builder
+@AllArgsConstructor
 public class ItemRequestShortDto {
     private long id;
     private String description;
@@ -5,6 +5,9 @@ import lombok.*;
 
 /**
  * Класс—модель данных приложения, дающий описание объекту User.
+ * Идентификатор выдается последовательностью users_seq блоками по 50 значений (оптимизатор pooled),
+ * поэтому вставки не требуют немедленного выполнения и объединяются в JDBC-пакеты.
+ * Версия входит в ETag ответов с данными пользователя, в том числе с именем автора комментария.
  */
 
 @Entity
@@ -17,7 +20,8 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(
             name = "id",
             nullable = false,
@@ -37,4 +41,11 @@ public class User {
             unique = true
     )
     private String email;
+
+    @Version
+    @Column(
+            name = "version",
+            nullable = false
+    )
+    private Long version;
 }
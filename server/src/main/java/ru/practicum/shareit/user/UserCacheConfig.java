@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация кэша пользователей в памяти приложения (Caffeine, вытеснение W-TinyLFU).
+ * Размер и время жизни записей задаются свойствами shareit.cache.users.*,
+ * статистика попаданий и промахов публикуется через actuator (cache.gets).
+ * Кэш учитывает транзакции: удаление записей при изменении User выполняется после фиксации транзакции,
+ * чтобы параллельный запрос не вернул в кэш старое значение.
+ */
+
+@Configuration
+@EnableCaching
+public class UserCacheConfig {
+    public static final String USERS_CACHE = "users";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                                     @Value("${shareit.cache.users.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
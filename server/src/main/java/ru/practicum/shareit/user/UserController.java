@@ -4,16 +4,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserFullDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * UserController — класс-контроллер, предоставляющий REST API для работы с данными типа User.
  * Базовый путь - /users.
  * Обмен данными осуществляется с микросервисом shareIt Gateway
+ * Ответ GET /users/{userId} содержит ETag из версии пользователя, при совпадении с If-None-Match возвращается 304.
+ * GET /users?ids=1,2,3 возвращает несколько User за один запрос.
  */
 
 @RestController
@@ -29,18 +33,30 @@ public class UserController {
     @PostMapping(consumes = "application/json")
     @ResponseStatus(HttpStatus.CREATED)
     public UserFullDto addUser(@RequestBody UserCreateDto user) {
-        log.info("Запрос на добавление User");
+        log.debug("Запрос на добавление User");
         UserFullDto userFullDto = userService.addUser(user);
         log.info("Успешно добавлен User c ID: {}", userFullDto.getId());
         return userFullDto;
     }
 
+    @PostMapping(
+            path = "/batch",
+            consumes = "application/json"
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    public Collection<UserFullDto> addUsers(@RequestBody List<UserCreateDto> users) {
+        log.debug("Запрос на добавление {} User", users.size());
+        Collection<UserFullDto> userFullDtos = userService.addUsers(users);
+        log.info("Успешно добавлено {} User", userFullDtos.size());
+        return userFullDtos;
+    }
+
     @PatchMapping(
             path = "/{userId}",
             consumes = "application/json"
     )
     public UserFullDto updateUser(@PathVariable Long userId, @RequestBody UserUpdateDto user) {
-        log.info("Запрос на обновление User c ID: {}", user.getId());
+        log.debug("Запрос на обновление User c ID: {}", user.getId());
         UserFullDto userFullDto = userService.updateUser(userId, user);
         log.info("Успешно обновлен User c ID: {}", userFullDto.getId());
         return userFullDto;
@@ -49,22 +65,34 @@ public class UserController {
     @DeleteMapping(path = "/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeUserById(@PathVariable Long userId) {
-        log.info("Запрос на удаление User по id: {}", userId);
+        log.debug("Запрос на удаление User по id: {}", userId);
         userService.removeUserById(userId);
         log.info("Успешно удален User с id: {}", userId);
     }
 
     @GetMapping(path = "/{userId}")
-    public UserFullDto getUserById(@PathVariable Long userId) {
-        log.info("Запрос на получение User по id: {}", userId);
+    public UserFullDto getUserById(@PathVariable Long userId, WebRequest webRequest) {
+        log.debug("Запрос на получение User по id: {}", userId);
+        if (webRequest.checkNotModified(userService.getUserEtag(userId))) {
+            log.info("User с id: {} не изменился", userId);
+            return null;
+        }
         UserFullDto userFullDto = userService.getUserById(userId);
         log.info("Успешно получен User с id: {}", userId);
         return userFullDto;
     }
 
+    @GetMapping(params = "ids")
+    public Collection<UserFullDto> getUsersByIds(@RequestParam(name = "ids") List<Long> ids) {
+        log.debug("Запрос на получение {} пользователей по списку id", ids.size());
+        Collection<UserFullDto> users = userService.getUsersByIds(ids);
+        log.info("Успешно получено {} пользователей по списку id", users.size());
+        return users;
+    }
+
     @GetMapping
     public Collection<UserFullDto> getAllUsers() {
-        log.info("Запрос на получение списка всех пользователей");
+        log.debug("Запрос на получение списка всех пользователей");
         Collection<UserFullDto> users = userService.getAllUsers();
         log.info("Список всех пользователей успешно сформирован");
         return users;
@@ -1,13 +1,25 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Интерфейс, определяющий набор стандартных и дополнительных действий хранения и поиска
- * с объектом типа Booking, используя методы интерфейса ListCrudRepository
+ * с объектом типа User, используя методы интерфейса ListCrudRepository
  */
 
 @Repository
 public interface UserRepository extends ListCrudRepository<User, Long> {
+
+    /**
+     * Поиск User по ID через кэш пользователей (UserCacheConfig).
+     * Используется сервисами для проверки существования пользователя и получения ссылки на него,
+     * возвращаемый объект не связан с текущей транзакцией и не должен изменяться.
+     * Для изменения User используется findById.
+     */
+    @Cacheable(cacheNames = UserCacheConfig.USERS_CACHE, unless = "#result == null")
+    Optional<User> findCachedById(Long id);
 }
@@ -5,6 +5,7 @@ import ru.practicum.shareit.user.dto.UserFullDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Интерфейс, определяющий набор методов для связи контроллера User и репозитория User,
@@ -15,11 +16,17 @@ public interface UserService {
 
     UserFullDto addUser(UserCreateDto user);
 
+    Collection<UserFullDto> addUsers(List<UserCreateDto> users);
+
     UserFullDto updateUser(Long userId, UserUpdateDto user);
 
     void removeUserById(Long userId);
 
     UserFullDto getUserById(Long userId);
 
+    Collection<UserFullDto> getUsersByIds(List<Long> userIds);
+
+    String getUserEtag(Long userId);
+
     Collection<UserFullDto> getAllUsers();
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -9,14 +10,19 @@ import ru.practicum.shareit.user.dto.UserFullDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * UserServiceImpl — класс, реализующий интерфейс UserService.
  * Содержит всю бизнес-логику по работе с объектами User:
- * добавление нового User, обновление данных по User,
- * получение User по ID, удаление User по ID,
+ * добавление нового User и списка User одной транзакцией, обновление данных по User,
+ * получение User по ID и по списку ID, удаление User по ID,
  * получение списка всех User в приложении.
- * Выполняет запросы к базе данных
+ * Выполняет запросы к базе данных, получение User по ID выполняется через кэш пользователей,
+ * записи которого удаляются при обновлении и удалении User
  * Определяет транзакционные методы.
  */
 
@@ -35,6 +41,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    public Collection<UserFullDto> addUsers(List<UserCreateDto> userCreateDtos) {
+        List<User> users = userRepository.saveAll(userCreateDtos.stream()
+                .map(UserMapper::toUser)
+                .toList());
+        return users.stream()
+                .map(UserMapper::toUserFullDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#userId")
     public UserFullDto updateUser(Long userId, UserUpdateDto userUpdateDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
@@ -51,6 +69,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#userId")
     public void removeUserById(Long userId) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
@@ -59,11 +78,44 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserFullDto getUserById(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findCachedById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
         return UserMapper.toUserFullDto(user);
     }
 
+    /**
+     * Пользователи читаются одним запросом IN мимо кэша пользователей, отсутствие любого из них
+     * приводит к NotFoundException. Порядок ответа совпадает с порядком ID без повторов.
+     */
+    @Override
+    public Collection<UserFullDto> getUsersByIds(List<Long> userIds) {
+        List<Long> ids = userIds.stream()
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !users.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Users not found by ids: " + missingIds);
+        }
+        return ids.stream()
+                .map(users::get)
+                .map(UserMapper::toUserFullDto)
+                .toList();
+    }
+
+    @Override
+    public String getUserEtag(Long userId) {
+        User user = userRepository.findCachedById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found by id: " + userId));
+        return "user-" + userId + "-" + user.getVersion();
+    }
+
     @Override
     public Collection<UserFullDto> getAllUsers() {
         return userRepository.findAll().stream()
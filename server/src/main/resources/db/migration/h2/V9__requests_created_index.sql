@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created_date_time, id);
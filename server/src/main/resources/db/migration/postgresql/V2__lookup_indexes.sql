@@ -0,0 +1,11 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_requester_created ON requests (requester_id, created_date_time);
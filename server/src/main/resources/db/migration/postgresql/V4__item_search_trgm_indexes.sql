@@ -0,0 +1,3 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_description_trgm ON items USING GIN (lower(description) gin_trgm_ops);
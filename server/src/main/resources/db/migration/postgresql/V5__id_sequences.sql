@@ -0,0 +1,11 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) FROM users) + 50, false);
+
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) FROM items) + 50, false);
+
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50, false);
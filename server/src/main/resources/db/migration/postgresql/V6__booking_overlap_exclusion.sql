@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_date_time, end_date_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
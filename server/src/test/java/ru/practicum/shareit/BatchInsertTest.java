@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка пакетных эндпоинтов по статистике Hibernate: все сущности пакета вставляются
+ * пакетами jdbc по hibernate.jdbc.batch_size строк, а не отдельным запросом на каждую строку.
+ */
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BatchInsertTest {
+    private static final int BATCH_SIZE = 120;
+    /**
+     * Три пакета вставки при hibernate.jdbc.batch_size=50, до трех обращений к последовательности
+     * при allocationSize=50 и до двух запросов поиска пользователя и вещей.
+     */
+    private static final int MAX_STATEMENTS = 8;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Statistics statistics;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .id(null)
+                .name("Owner")
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build());
+        booker = userRepository.save(User.builder()
+                .id(null)
+                .name("Booker")
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .id(null)
+                .name("Item " + UUID.randomUUID())
+                .description("Description")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @SneakyThrows
+    void addUsers_thenInsertInJdbcBatches() {
+        String body = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "{\"name\":\"User" + i + "\",\"email\":\"" + UUID.randomUUID() + "@Email123.net\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(BATCH_SIZE));
+
+        assertBatched();
+    }
+
+    @Test
+    @SneakyThrows
+    void addItems_thenInsertInJdbcBatches() {
+        String prefix = UUID.randomUUID().toString();
+        String body = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "{\"name\":\"" + prefix + i + "\",\"description\":\"Description\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(BATCH_SIZE));
+
+        assertBatched();
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_thenInsertInJdbcBatches() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        String body = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> "{\"itemId\":" + item.getId() + ",\"start\":\"" + start.plusDays(2L * i) +
+                        "\",\"end\":\"" + start.plusDays(2L * i + 1) + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(BATCH_SIZE));
+
+        assertBatched();
+    }
+
+    private void assertBatched() {
+        assertEquals(BATCH_SIZE, statistics.getEntityInsertCount());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS,
+                "expected inserts in jdbc batches, but was " + statements + " statements");
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка ETag ответов: ответ 304 на неизмененный ресурс и новый ETag после изменения любых данных,
+ * входящих в ответ.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTest {
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("Owner"));
+        booker = userRepository.save(user("Booker"));
+        item = itemRepository.save(item("Item", null));
+    }
+
+    @Test
+    void getItemById_whenItemUpdated_thenNewEtag() {
+        String etag = assertNotModifiedAfterGet(itemRequest(owner));
+
+        patch("/items/" + item.getId(), owner, "{\"description\":\"New description\"}");
+
+        assertNotEquals(etag, getEtag(itemRequest(owner), etag));
+    }
+
+    @Test
+    void getItemById_whenBookingAdded_thenNewEtagForOwnerOnly() {
+        String ownerEtag = assertNotModifiedAfterGet(itemRequest(owner));
+        String bookerEtag = assertNotModifiedAfterGet(itemRequest(booker));
+
+        Booking booking = bookingRepository.save(booking(LocalDateTime.now().plusDays(1)));
+
+        String newOwnerEtag = getEtag(itemRequest(owner), ownerEtag);
+        assertNotEquals(ownerEtag, newOwnerEtag);
+        assertEquals(bookerEtag, getEtag(itemRequest(booker), bookerEtag));
+
+        patch("/bookings/" + booking.getId() + "?approved=true", owner, null);
+
+        assertNotEquals(newOwnerEtag, getEtag(itemRequest(owner), newOwnerEtag));
+    }
+
+    @Test
+    void getItemById_whenCommentAddedOrAuthorRenamed_thenNewEtag() {
+        String etag = assertNotModifiedAfterGet(itemRequest(booker));
+
+        commentRepository.save(Comment.builder()
+                .id(null)
+                .text("Comment")
+                .item(item)
+                .author(booker)
+                .created(LocalDateTime.now())
+                .build());
+        String commentedEtag = getEtag(itemRequest(booker), etag);
+        assertNotEquals(etag, commentedEtag);
+
+        patch("/users/" + booker.getId(), null, "{\"name\":\"Renamed\"}");
+
+        assertNotEquals(commentedEtag, getEtag(itemRequest(booker), commentedEtag));
+    }
+
+    @Test
+    void getUserById_whenUserUpdated_thenNewEtag() {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/users/{userId}", owner.getId());
+        String etag = assertNotModifiedAfterGet(request);
+
+        patch("/users/" + owner.getId(), null, "{\"name\":\"Renamed\"}");
+
+        assertNotEquals(etag, getEtag(request, etag));
+    }
+
+    @Test
+    void getItemRequests_whenItemAddedForRequest_thenNewEtag() {
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .id(null)
+                .description("Request")
+                .created(LocalDateTime.now())
+                .requester(booker)
+                .build());
+        MockHttpServletRequestBuilder byIdRequest = MockMvcRequestBuilders
+                .get("/requests/{requestId}", itemRequest.getId())
+                .header("X-Sharer-User-Id", booker.getId());
+        MockHttpServletRequestBuilder ownRequests = MockMvcRequestBuilders.get("/requests")
+                .header("X-Sharer-User-Id", booker.getId());
+        String byIdEtag = assertNotModifiedAfterGet(byIdRequest);
+        String ownEtag = assertNotModifiedAfterGet(ownRequests);
+
+        Item answer = itemRepository.save(item("Answer", itemRequest));
+
+        String newByIdEtag = getEtag(byIdRequest, byIdEtag);
+        assertNotEquals(byIdEtag, newByIdEtag);
+        assertNotEquals(ownEtag, getEtag(ownRequests, ownEtag));
+
+        patch("/items/" + answer.getId(), owner, "{\"name\":\"Renamed answer\"}");
+
+        assertNotEquals(newByIdEtag, getEtag(byIdRequest, newByIdEtag));
+    }
+
+    /**
+     * Возвращает ETag ответа 200 и проверяет, что запрос с этим ETag в If-None-Match получает 304.
+     */
+    @SneakyThrows
+    private String assertNotModifiedAfterGet(MockHttpServletRequestBuilder request) {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        mockMvc.perform(request.header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        return etag;
+    }
+
+    /**
+     * Возвращает текущий ETag ресурса условным запросом: при ответе 304 он совпадает с переданным.
+     */
+    @SneakyThrows
+    private String getEtag(MockHttpServletRequestBuilder request, String ifNoneMatch) {
+        return mockMvc.perform(request.header("If-None-Match", ifNoneMatch))
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    @SneakyThrows
+    private void patch(String path, User user, String body) {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.patch(path);
+        if (user != null) {
+            request.header("X-Sharer-User-Id", user.getId());
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder itemRequest(User user) {
+        return MockMvcRequestBuilders.get("/items/{itemId}", item.getId())
+                .header("X-Sharer-User-Id", user.getId());
+    }
+
+    private Booking booking(LocalDateTime start) {
+        return Booking.builder()
+                .id(null)
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private Item item(String name, ItemRequest request) {
+        return Item.builder()
+                .id(null)
+                .name(name + " " + UUID.randomUUID())
+                .description("Description")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .id(null)
+                .name(name)
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка экспорта метрик в формате Prometheus: гистограммы времени обработки запросов по шаблону URI,
+ * таймеры методов репозиториев и статистика кэшей пользователей и календаря бронирований.
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsExportTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    @SneakyThrows
+    void prometheus_afterRequests_thenEndpointRepositoryAndCacheMetricsExported() {
+        User user = userRepository.save(User.builder()
+                .id(null)
+                .name("User")
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", user.getId()))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/items")
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(metrics, "http_server_requests_seconds_bucket{application=\"shareit-server\"");
+        assertContains(metrics, "uri=\"/users/{userId}\"");
+        assertContains(metrics, "le=\"+Inf\"");
+        assertContains(metrics, "spring_data_repository_invocations_seconds_bucket");
+        assertContains(metrics, "repository=\"ItemRepository\"");
+        assertContains(metrics, "cache_gets_total{application=\"shareit-server\",cache=\"users\"");
+        assertContains(metrics, "result=\"hit\"");
+        assertContains(metrics, "cache=\"booking-calendar\"");
+    }
+
+    private static void assertContains(String metrics, String expected) {
+        assertTrue(metrics.contains(expected), () -> "expected " + expected + " in prometheus output");
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка миграций db/migration/postgresql на PostgreSQL той же версии, что в docker-compose.yml.
+ * lock_timeout сервера ограничивает ожидание блокировок: если CREATE INDEX CONCURRENTLY снова будет ждать
+ * транзакцию с блокировкой Flyway, запуск приложения завершится ошибкой, а не зависнет.
+ * Без Docker тест пропускается.
+ */
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+    private static final List<String> CONCURRENT_INDEXES = List.of(
+            "ix_bookings_booker_start", "ix_bookings_item_start", "ix_items_owner", "ix_items_request",
+            "ix_comments_item", "ix_requests_requester_created",
+            "ix_items_name_trgm", "ix_items_description_trgm", "ix_requests_created");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.1")
+            .withCommand("postgres", "-c", "fsync=off", "-c", "lock_timeout=30s");
+
+    @Autowired
+    Flyway flyway;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_whenStartedOnPostgres_thenAllMigrationsApplied() {
+        assertEquals("9", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    void migrate_whenIndexesBuiltConcurrently_thenAllIndexesValid() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                        + "WHERE i.indisvalid AND c.relname LIKE 'ix\\_%'", String.class);
+        Integer invalid = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_index WHERE NOT indisvalid", Integer.class);
+
+        assertTrue(indexes.containsAll(CONCURRENT_INDEXES), () -> "Indexes: " + indexes);
+        assertEquals(0, invalid);
+    }
+}
@@ -0,0 +1,287 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка планов выполнения запросов репозиториев на заполненной базе:
+ * SQL, сформированный Hibernate для каждого метода, выполняется через EXPLAIN,
+ * тест падает, если таблица bookings, items, comments или requests читается полным просмотром.
+ */
+
+@DataJpaTest
+class QueryPlanTest {
+    private static final List<String> HOT_TABLES = List.of("BOOKINGS", "ITEMS", "COMMENTS", "REQUESTS");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    private Long ownerId;
+    private Long bookerId;
+    private List<Long> itemIds;
+
+    @Autowired
+    SqlCollector sqlCollector;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(User.builder().id(null).name("User" + i).email("user" + i + "@Email123.net").build());
+        }
+        users = userRepository.saveAll(users);
+        ownerId = users.get(0).getId();
+        bookerId = users.get(1).getId();
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(ItemRequest.builder()
+                    .id(null)
+                    .description("Request" + i)
+                    .requester(users.get(i % users.size()))
+                    .created(NOW.minusHours(i))
+                    .build());
+        }
+        requests = itemRequestRepository.saveAll(requests);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(Item.builder()
+                    .id(null)
+                    .name("Item" + i)
+                    .description("Description" + i)
+                    .available(true)
+                    .owner(users.get(i % 10))
+                    .request(i % 2 == 0 ? requests.get(i % requests.size()) : null)
+                    .build());
+        }
+        items = itemRepository.saveAll(items);
+        itemIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(ownerId))
+                .map(Item::getId)
+                .toList();
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = NOW.plusDays(i % 100 - 50);
+            bookings.add(Booking.builder()
+                    .id(null)
+                    .start(start)
+                    .end(start.plusDays(2))
+                    .item(items.get(i % items.size()))
+                    .booker(users.get(10 + i % 10))
+                    .status(BookingStatus.values()[i % BookingStatus.values().length])
+                    .build());
+            if (i % 4 == 0) {
+                comments.add(Comment.builder()
+                        .id(null)
+                        .text("Comment" + i)
+                        .item(items.get(i % items.size()))
+                        .author(users.get(10 + i % 10))
+                        .created(NOW)
+                        .build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        entityManager.flush();
+        entityManager.clear();
+        bookerId = users.get(10).getId();
+    }
+
+    @Test
+    void bookerBookingQueries_useIndex() {
+        assertNoTableScan(() -> bookingRepository.findByBookerIdOrderByStartDesc(bookerId));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId, NOW, NOW));
+        assertNoTableScan(() -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId, NOW));
+        assertNoTableScan(() -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId, NOW));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING));
+    }
+
+    @Test
+    void bookerBookingWindowQueries_useIndex() {
+        ScrollPosition position = ScrollPosition.keyset();
+        Limit limit = Limit.of(20);
+        assertNoTableScan(() -> bookingRepository.findByBookerIdOrderByStartDescIdDesc(bookerId, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(bookerId, NOW, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndEndBeforeOrderByStartDescIdDesc(bookerId, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndStartAfterOrderByStartDescIdDesc(bookerId, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByBookerIdAndStatusOrderByStartDescIdDesc(bookerId, BookingStatus.WAITING, position, limit));
+    }
+
+    @Test
+    void ownerBookingQueries_useIndex() {
+        assertNoTableScan(() -> bookingRepository.findByItemIdInOrderByStartDesc(itemIds));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(itemIds, NOW, NOW));
+        assertNoTableScan(() -> bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(itemIds, NOW));
+        assertNoTableScan(() -> bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(itemIds, NOW));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemIdInAndStatusOrderByStartDesc(itemIds, BookingStatus.WAITING));
+    }
+
+    @Test
+    void ownerBookingWindowQueries_useIndex() {
+        ScrollPosition position = ScrollPosition.keyset();
+        Limit limit = Limit.of(20);
+        assertNoTableScan(() -> bookingRepository.findByItemOwnerIdOrderByStartDescIdDesc(ownerId, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(ownerId, NOW, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(ownerId, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(ownerId, NOW, position, limit));
+        assertNoTableScan(() -> bookingRepository
+                .findByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId, BookingStatus.WAITING, position, limit));
+    }
+
+    @Test
+    void itemBookingQueries_useIndex() {
+        Long itemId = itemIds.getFirst();
+        assertNoTableScan(() -> bookingRepository.findByItemId(itemId));
+        assertNoTableScan(() -> bookingRepository.findFirstByItemIdAndBookerIdAndEndBefore(itemId, bookerId, NOW));
+        assertNoTableScan(() -> bookingRepository.findByItemIdInOrderByItemIdAsc(itemIds));
+        assertNoTableScan(() -> bookingRepository.findLastAndNextBookingsByOwnerId(ownerId, NOW));
+    }
+
+    @Test
+    void bookingCalendarQueries_useIndex() {
+        Long itemId = itemIds.getFirst();
+        assertNoTableScan(() -> bookingRepository.findBlockingPeriodsStartingBefore(itemId,
+                BookingCalendar.BLOCKING_STATUSES, NOW, Limit.of(1)));
+        assertNoTableScan(() -> bookingRepository.findBlockingPeriodsStartingBetween(itemId,
+                BookingCalendar.BLOCKING_STATUSES, NOW, NOW.plusDays(30)));
+        assertNoTableScan(() -> bookingRepository.findBlockingPeriodsByItemId(itemId,
+                BookingCalendar.BLOCKING_STATUSES));
+    }
+
+    @Test
+    void itemQueries_useIndex() {
+        assertNoTableScan(() -> itemRepository.findByOwnerIdOrderByIdAsc(ownerId));
+        assertNoTableScan(() -> itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L)));
+        assertNoTableScan(() -> itemRepository.findAvailablePartialDtoByIdIn(itemIds, NOW, NOW.plusDays(1)));
+    }
+
+    @Test
+    void commentQueries_useIndex() {
+        assertNoTableScan(() -> commentRepository.findByItemId(itemIds.getFirst()));
+        assertNoTableScan(() -> commentRepository.findByItemIdInOrderByItemIdAsc(itemIds));
+    }
+
+    @Test
+    void itemRequestQueries_useIndex() {
+        assertNoTableScan(() -> itemRequestRepository.findByRequesterIdOrderByCreatedDesc(bookerId));
+    }
+
+    private void assertNoTableScan(Runnable repositoryCall) {
+        sqlCollector.clear();
+        repositoryCall.run();
+        List<String> statements = sqlCollector.getStatements();
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            for (String table : HOT_TABLES) {
+                assertFalse(plan.contains("PUBLIC." + table + ".TABLESCAN"),
+                        () -> "Table scan of " + table + " in plan:\n" + plan);
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString().toUpperCase(Locale.ROOT);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class SqlCollectorConfig {
+
+        @Bean
+        SqlCollector sqlCollector() {
+            return new SqlCollector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCollectorCustomizer(SqlCollector sqlCollector) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", sqlCollector);
+        }
+    }
+
+    static class SqlCollector implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        synchronized List<String> getStatements() {
+            return List.copyOf(statements);
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package ru.practicum.shareit;
 
+import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
 @SpringBootTest
 class ShareItServerTests {
 
+	@Autowired
+	Flyway flyway;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void migrate_whenMigrationsAlreadyApplied_thenNothingToApply() {
+		assertNotNull(flyway.info().current());
+		assertEquals(0, flyway.migrate().migrationsExecuted);
+	}
+
 }
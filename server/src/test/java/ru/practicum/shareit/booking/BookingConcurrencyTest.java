@@ -0,0 +1,207 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPartialDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочная проверка конкурентного доступа к одной вещи: задачи запускаются в виртуальных потоках
+ * одновременно (после общего барьера) и проверяется, что результат не зависит от порядка их выполнения.
+ */
+
+@Slf4j
+@SpringBootTest
+class BookingConcurrencyTest {
+    private static final int THREADS = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("Owner"));
+        booker = userRepository.save(user("Booker"));
+        item = itemRepository.save(Item.builder()
+                .id(null)
+                .name("Item " + UUID.randomUUID())
+                .description("Description")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void addBooking_whenManyThreadsBookSameSlot_thenOnlyOneSucceeds() throws Exception {
+        List<Outcome<BookingPartialDto>> outcomes = runConcurrently(THREADS,
+                i -> bookingService.addBooking(booker.getId(), bookingCreateDto(start, start.plusDays(1))));
+
+        assertEquals(1, count(outcomes, null));
+        assertEquals(THREADS - 1, count(outcomes, ConflictException.class));
+        assertEquals(1, bookingRepository.findByItemId(item.getId()).size());
+    }
+
+    @Test
+    void addBooking_whenManyThreadsBookDisjointSlots_thenAllSucceed() throws Exception {
+        long startedAt = System.nanoTime();
+        List<Outcome<BookingPartialDto>> outcomes = runConcurrently(THREADS,
+                i -> bookingService.addBooking(booker.getId(),
+                        bookingCreateDto(start.plusHours(i), start.plusHours(i + 1))));
+        logThroughput("addBooking, disjoint slots", startedAt);
+
+        assertEquals(THREADS, count(outcomes, null));
+        List<Booking> bookings = bookingRepository.findByItemId(item.getId());
+        assertEquals(THREADS, bookings.size());
+        assertEquals(THREADS, bookings.stream().map(Booking::getStart).collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    void updateBookingStatus_whenOwnerSessionsDecideConcurrently_thenSingleDecisionWins() throws Exception {
+        Long bookingId = bookingService.addBooking(booker.getId(), bookingCreateDto(start, start.plusDays(1))).getId();
+
+        long startedAt = System.nanoTime();
+        List<Outcome<BookingPartialDto>> outcomes = runConcurrently(THREADS,
+                i -> bookingService.updateBookingStatus(owner.getId(), bookingId, i % 2 == 0));
+        logThroughput("updateBookingStatus, opposite decisions", startedAt);
+
+        Booking decided = bookingRepository.findById(bookingId).orElseThrow();
+        assertNotEquals(BookingStatus.WAITING, decided.getStatus());
+        assertEquals(1L, decided.getVersion());
+        Set<BookingStatus> returnedStatuses = outcomes.stream()
+                .filter(outcome -> outcome.error() == null)
+                .map(outcome -> outcome.result().getStatus())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(decided.getStatus()), returnedStatuses);
+        assertEquals(THREADS / 2, count(outcomes, null));
+        assertEquals(THREADS / 2, count(outcomes, ConflictException.class));
+    }
+
+    @Test
+    void updateBookingStatus_whenApprovalRetriedConcurrently_thenAllRetriesSucceedWithSingleUpdate()
+            throws Exception {
+        Long bookingId = bookingService.addBooking(booker.getId(), bookingCreateDto(start, start.plusDays(1))).getId();
+
+        List<Outcome<BookingPartialDto>> outcomes = runConcurrently(THREADS,
+                i -> bookingService.updateBookingStatus(owner.getId(), bookingId, true));
+
+        assertEquals(THREADS, count(outcomes, null));
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.result().getStatus() == BookingStatus.APPROVED));
+        assertEquals(1L, bookingRepository.findById(bookingId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void updateItem_whenOwnerSessionsEditConcurrently_thenNoUpdateIsLost() throws Exception {
+        List<Outcome<Object>> outcomes = runConcurrently(THREADS,
+                i -> itemService.updateItem(owner.getId(), ItemUpdateDto.builder()
+                        .id(item.getId())
+                        .description("Description " + i)
+                        .build()));
+
+        long applied = count(outcomes, null);
+        assertTrue(applied >= 1);
+        assertEquals(THREADS - applied, count(outcomes, OptimisticLockingFailureException.class));
+        assertEquals(applied, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    private BookingCreateDto bookingCreateDto(LocalDateTime start, LocalDateTime end) {
+        return BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<Outcome<T>> runConcurrently(int tasks, IntFunctionWithResult<?> task) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(tasks);
+        List<Future<Outcome<T>>> futures = new ArrayList<>(tasks);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    try {
+                        return new Outcome<>((T) task.apply(index), null);
+                    } catch (RuntimeException e) {
+                        return new Outcome<>(null, e);
+                    }
+                }));
+            }
+            List<Outcome<T>> outcomes = new ArrayList<>(tasks);
+            for (Future<Outcome<T>> future : futures) {
+                outcomes.add(future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+            }
+            return outcomes;
+        }
+    }
+
+    /**
+     * Число задач, завершившихся без исключения (errorType == null) или с исключением заданного типа.
+     */
+    private static long count(List<? extends Outcome<?>> outcomes, Class<? extends Exception> errorType) {
+        return outcomes.stream()
+                .filter(outcome -> errorType == null ? outcome.error() == null : errorType.isInstance(outcome.error()))
+                .count();
+    }
+
+    private static void logThroughput(String operation, long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        log.info("{}: {} concurrent calls in {} ms, {} ops/s", operation, THREADS,
+                Math.round(seconds * 1000), Math.round(THREADS / seconds));
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .id(null)
+                .name(name)
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface IntFunctionWithResult<R> {
+        R apply(int index);
+    }
+
+    private record Outcome<T>(T result, RuntimeException error) {
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.time.Month;
@@ -85,6 +87,68 @@ class BookingControllerTest {
                 .addBooking(eq(userId), any(BookingCreateDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    void addBooking_whenPeriodIsAlreadyBooked_thenReturnConflict() {
+        Long userId = 23L;
+
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .start(LocalDateTime.of(2025, Month.MARCH, 23, 12, 0, 0))
+                .end(LocalDateTime.of(2025, Month.APRIL, 1, 12, 0, 0))
+                .itemId(2L)
+                .build();
+
+        Mockito
+                .when(bookingService.addBooking(eq(userId), any(BookingCreateDto.class)))
+                .thenThrow(new ConflictException("Item with ID: 2 is already booked"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .content(objectMapper.writeValueAsString(bookingCreateDto))
+                        .contentType("application/json; charset=UTF-8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @SneakyThrows
+    @Test
+    void addBookingsTest() {
+        Long userId = 23L;
+
+        List<BookingCreateDto> bookingCreateDtos = List.of(
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.of(2025, Month.MARCH, 23, 12, 0, 0))
+                        .end(LocalDateTime.of(2025, Month.APRIL, 1, 12, 0, 0))
+                        .itemId(2L)
+                        .build(),
+                BookingCreateDto.builder()
+                        .start(LocalDateTime.of(2025, Month.APRIL, 23, 12, 0, 0))
+                        .end(LocalDateTime.of(2025, Month.MAY, 1, 12, 0, 0))
+                        .itemId(3L)
+                        .build());
+        List<BookingPartialDto> bookingPartialDtos = List.of(
+                new BookingPartialDto(5L, LocalDateTime.of(2025, Month.MARCH, 23, 12, 0, 0),
+                        LocalDateTime.of(2025, Month.APRIL, 1, 12, 0, 0), 2L, "item2", userId, "booker name",
+                        BookingStatus.WAITING),
+                new BookingPartialDto(6L, LocalDateTime.of(2025, Month.APRIL, 23, 12, 0, 0),
+                        LocalDateTime.of(2025, Month.MAY, 1, 12, 0, 0), 3L, "item3", userId, "booker name",
+                        BookingStatus.WAITING));
+
+        Mockito
+                .when(bookingService.addBookings(eq(userId), Mockito.anyList()))
+                .thenReturn(bookingPartialDtos);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .content(objectMapper.writeValueAsString(bookingCreateDtos))
+                        .contentType("application/json; charset=UTF-8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(bookingPartialDtos)));
+
+        Mockito.verify(bookingService, Mockito.times(1)).addBookings(eq(userId), Mockito.anyList());
+    }
+
     @SneakyThrows
     @Test
     void updateBookingStatusTest() {
@@ -128,6 +192,34 @@ class BookingControllerTest {
                 .updateBookingStatus(userId, bookingId, approvedParam);
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingsByIdsTest() {
+        Long userId = 15L;
+        BookingPartialDto bookingPartialDto = BookingPartialDto.builder()
+                .id(3L)
+                .start(LocalDateTime.of(2025, Month.MARCH, 23, 12, 0, 0))
+                .end(LocalDateTime.of(2025, Month.APRIL, 1, 12, 0, 0))
+                .booker(new BookingPartialDto.UserShortDto(userId, "booker name"))
+                .item(new BookingPartialDto.ItemShortDto(4L, "booking item name"))
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        Mockito
+                .when(bookingService.getBookingsByIds(eq(userId), eq(List.of(3L, 5L))))
+                .thenReturn(List.of(bookingPartialDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings")
+                        .param("ids", "3,5")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(bookingPartialDto))));
+
+        Mockito.verify(bookingService, Mockito.never()).getUserBookings(any(), any());
+    }
+
     @SneakyThrows
     @Test
     void getBookingByIdTest() {
@@ -288,4 +380,56 @@ class BookingControllerTest {
 
         Mockito.verify(bookingService, Mockito.never()).getAllUserItemsBookings(userId, BookingState.ALL);
     }
+
+    @SneakyThrows
+    @Test
+    void getAllUserBookingsTest_whenSizeParamIsSet_thenReturnedPageWithNextCursorHeader() {
+        Long userId = 12L;
+        BookingState state = BookingState.PAST;
+        String nextCursor = "next-cursor-token";
+
+        BookingPartialDto bookingPartialDto = BookingPartialDto.builder()
+                .id(3L)
+                .start(LocalDateTime.of(2025, Month.MARCH, 23, 12, 0, 0))
+                .end(LocalDateTime.of(2025, Month.APRIL, 1, 12, 0, 0))
+                .booker(new BookingPartialDto.UserShortDto(userId, "booker name"))
+                .item(new BookingPartialDto.ItemShortDto(4L, "booking item name "))
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        Mockito
+                .when(bookingService.getUserBookings(eq(userId), eq(state), eq(null), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(bookingPartialDto), nextCursor));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .param("state", String.valueOf(state))
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(BookingController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(bookingPartialDto))));
+
+        Mockito.verify(bookingService, Mockito.never()).getUserBookings(userId, state);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUserItemsBookingsTest_whenLastPage_thenReturnedPageWithoutNextCursorHeader() {
+        Long userId = 15L;
+        String cursor = "cursor-token";
+
+        Mockito
+                .when(bookingService.getAllUserItemsBookings(eq(userId), eq(BookingState.ALL), eq(cursor), eq(null)))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .param("cursor", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(MockMvcResultMatchers.content().json("[]"));
+    }
 }
@@ -0,0 +1,218 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserCacheConfig;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка числа SQL-запросов, выполняемых эндпоинтами бронирований, по статистике Hibernate.
+ * Число запросов не должно зависеть от количества бронирований в ответе, иначе тест фиксирует N+1.
+ */
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BookingQueryCountTest {
+    private static final int ITEMS_COUNT = 5;
+    private static final int BOOKINGS_PER_ITEM = 3;
+
+    private User owner;
+    private User booker;
+    private List<Item> items;
+    private Booking pastBooking;
+    private List<Long> bookingIds;
+    private Statistics statistics;
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CacheManager cacheManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("Owner"));
+        booker = userRepository.save(user("Booker"));
+        items = new ArrayList<>();
+        bookingIds = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .id(null)
+                    .name("Item" + i + " " + UUID.randomUUID())
+                    .description("Description" + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(null)
+                    .build());
+            items.add(item);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                pastBooking = bookingRepository.save(Booking.builder()
+                        .id(null)
+                        .start(now.minusDays(10 + j))
+                        .end(now.minusDays(5 + j))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+                bookingIds.add(pastBooking.getId());
+            }
+        }
+        cacheManager.getCache(UserCacheConfig.USERS_CACHE).clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getBookingById_thenOneStatement() {
+        assertStatements(1, MockMvcRequestBuilders.get("/bookings/{bookingId}", pastBooking.getId())
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getBookingsByIds_thenOneStatement() {
+        assertStatements(1, MockMvcRequestBuilders.get("/bookings")
+                .param("ids", joinIds(bookingIds))
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getItemsByIds_whenOwner_thenItemsBookingsAndCommentsSelects() {
+        assertStatements(3, MockMvcRequestBuilders.get("/items")
+                .param("ids", joinIds(items.stream().map(Item::getId).toList()))
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getUsersByIds_thenOneStatement() {
+        assertStatements(1, MockMvcRequestBuilders.get("/users")
+                .param("ids", joinIds(List.of(owner.getId(), booker.getId()))));
+    }
+
+    @Test
+    void updateBookingStatus_thenSelectAndUpdate() {
+        assertStatements(2, MockMvcRequestBuilders.patch("/bookings/{bookingId}", pastBooking.getId())
+                .param("approved", "true")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void addBooking_thenItemUserAndPeriodsSelectsAndInsert() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        String body = "{\"itemId\":" + items.getFirst().getId() + ",\"start\":\"" + start +
+                "\",\"end\":\"" + start.plusDays(1) + "\"}";
+
+        assertStatementsWithIdAllocation(4, MockMvcRequestBuilders.post("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body)
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getUserBookings_thenUserAndBookingsSelects() {
+        assertStatements(2, MockMvcRequestBuilders.get("/bookings")
+                .param("state", "ALL")
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getUserBookingsPage_thenUserAndBookingsSelects() {
+        assertStatements(2, MockMvcRequestBuilders.get("/bookings")
+                .param("state", "PAST")
+                .param("size", "10")
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @Test
+    void getAllUserItemsBookings_thenUserItemsAndBookingsSelects() {
+        assertStatements(3, MockMvcRequestBuilders.get("/bookings/owner")
+                .param("state", "ALL")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void getAllUserItemsBookingsPage_thenUserAndBookingsSelects() {
+        assertStatements(2, MockMvcRequestBuilders.get("/bookings/owner")
+                .param("state", "ALL")
+                .param("size", "10")
+                .header("X-Sharer-User-Id", owner.getId()));
+    }
+
+    @Test
+    void addComment_thenBookingSelectAndInsert() {
+        assertStatements(2, MockMvcRequestBuilders.post("/items/{itemId}/comment", items.getFirst().getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"Comment\"}")
+                .header("X-Sharer-User-Id", booker.getId()));
+    }
+
+    @SneakyThrows
+    private void assertStatements(long expected, RequestBuilder request) {
+        statistics.clear();
+
+        mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful());
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Вставка может дополнительно обратиться к последовательности, если исчерпан выделенный блок идентификаторов.
+     */
+    @SneakyThrows
+    private void assertStatementsWithIdAllocation(long expected, RequestBuilder request) {
+        statistics.clear();
+
+        mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements == expected || statements == expected + 1,
+                "expected " + expected + " statements and at most one sequence call, but was " + statements);
+    }
+
+    private static String joinIds(List<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .id(null)
+                .name(name)
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build();
+    }
+}
@@ -5,8 +5,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -120,7 +125,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByBookerIdOrderByStartDesc(bookerId);
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdOrderByStartDesc(bookerId);
 
         assertEquals(3, bookings.size());
         assertEquals(bookingId3, bookings.get(0).getId());
@@ -128,16 +133,29 @@ class BookingRepositoryTest {
         assertEquals(bookingId1, bookings.get(2).getId());
     }
 
+    @Test
+    void findByBookerIdOrderByStartDesc_whenFound_thenProjectItemAndBooker() {
+        BookingPartialDto booking = bookingRepository.findByBookerIdOrderByStartDesc(bookerId).getFirst();
+
+        assertEquals(itemId3, booking.getItem().id());
+        assertEquals("item3Name", booking.getItem().name());
+        assertEquals(bookerId, booking.getBooker().id());
+        assertEquals("BookerName", booking.getBooker().name());
+        assertEquals(LocalDateTime.of(2025, Month.MAY, 20, 12, 0), booking.getStart());
+        assertEquals(LocalDateTime.of(2025, Month.SEPTEMBER, 20, 12, 0), booking.getEnd());
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+    }
+
     @Test
     void findByBookerIdOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByBookerIdOrderByStartDesc(100L);
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdOrderByStartDesc(100L);
 
         assertTrue(bookings.isEmpty());
     }
 
     @Test
     void findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.JUNE, 1, 12, 0),
                 LocalDateTime.of(2025, Month.SEPTEMBER, 1, 12, 0));
 
@@ -149,7 +167,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.APRIL, 1, 12, 0),
                 LocalDateTime.of(2025, Month.SEPTEMBER, 1, 12, 0));
 
@@ -158,7 +176,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndEndBeforeOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.OCTOBER, 1, 12, 0));
 
         assertEquals(3, bookings.size());
@@ -169,7 +187,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndEndBeforeOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.AUGUST, 1, 12, 0));
 
         assertTrue(bookings.isEmpty());
@@ -177,7 +195,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndStartAfterOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.APRIL, 1, 12, 0));
 
         assertEquals(3, bookings.size());
@@ -188,7 +206,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndStartAfterOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId,
                 LocalDateTime.of(2025, Month.JUNE, 1, 12, 0));
 
         assertTrue(bookings.isEmpty());
@@ -196,7 +214,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndStatusOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId,
                 BookingStatus.APPROVED);
 
         assertEquals(3, bookings.size());
@@ -207,7 +225,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByBookerIdAndStatusOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId,
+        List<BookingPartialDto> bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId,
                 BookingStatus.CANCELED);
 
         assertTrue(bookings.isEmpty());
@@ -215,7 +233,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByItemIdInOrderByStartDesc(List.of(itemId1, itemId2, itemId3));
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInOrderByStartDesc(List.of(itemId1, itemId2, itemId3));
 
         assertEquals(3, bookings.size());
         assertEquals(bookingId3, bookings.get(0).getId());
@@ -225,14 +243,14 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByItemIdInOrderByStartDesc(List.of(10L, 11L, 12L));
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInOrderByStartDesc(List.of(10L, 11L, 12L));
 
         assertTrue(bookings.isEmpty());
     }
 
     @Test
     void findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.JUNE, 1, 12, 0),
                 LocalDateTime.of(2025, Month.SEPTEMBER, 1, 12, 0));
@@ -245,7 +263,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.APRIL, 1, 12, 0),
                 LocalDateTime.of(2025, Month.SEPTEMBER, 1, 12, 0));
@@ -255,7 +273,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndEndBeforeOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.OCTOBER, 1, 12, 0));
 
@@ -267,7 +285,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndEndBeforeOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.AUGUST, 1, 12, 0));
 
@@ -276,7 +294,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndStartAfterOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.APRIL, 1, 12, 0));
 
@@ -288,7 +306,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndStartAfterOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3),
                 LocalDateTime.of(2025, Month.JUNE, 1, 12, 0));
 
@@ -297,7 +315,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndStatusOrderByStartDesc_whenFound_thenReturnListOfBookings() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStatusOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStatusOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3), BookingStatus.APPROVED);
 
         assertEquals(3, bookings.size());
@@ -308,7 +326,7 @@ class BookingRepositoryTest {
 
     @Test
     void findByItemIdInAndStatusOrderByStartDesc_whenNotFound_thenReturnEmptyList() {
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStatusOrderByStartDesc(
+        List<BookingPartialDto> bookings = bookingRepository.findByItemIdInAndStatusOrderByStartDesc(
                 List.of(itemId1, itemId2, itemId3), BookingStatus.REJECTED);
 
         assertTrue(bookings.isEmpty());
@@ -369,4 +387,72 @@ class BookingRepositoryTest {
     public void clear() {
         userRepository.deleteAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByBookerIdOrderByStartDescIdDesc_whenScrolledByPages_thenReturnAllBookingsInOrder() {
+        Window<Booking> firstPage = bookingRepository.findByBookerIdOrderByStartDescIdDesc(bookerId,
+                ScrollPosition.keyset(), Limit.of(2));
+
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.hasNext());
+        assertEquals(bookingId3, firstPage.getContent().get(0).getId());
+        assertEquals(bookingId2, firstPage.getContent().get(1).getId());
+
+        Booking last = firstPage.getContent().getLast();
+        Window<Booking> secondPage = bookingRepository.findByBookerIdOrderByStartDescIdDesc(bookerId,
+                KeysetCursor.decode(KeysetCursor.encode(last.getStart(), last.getId()), "start"), Limit.of(2));
+
+        assertEquals(1, secondPage.size());
+        assertFalse(secondPage.hasNext());
+        assertEquals(bookingId1, secondPage.getContent().get(0).getId());
+    }
+
+    @Test
+    void findByItemOwnerIdAndStatusOrderByStartDescIdDesc_whenFound_thenReturnWindowOfBookings() {
+        Long ownerId = itemRepository.findById(itemId1).orElseThrow().getOwner().getId();
+
+        Window<Booking> bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId,
+                BookingStatus.APPROVED, ScrollPosition.keyset(), Limit.of(10));
+
+        assertEquals(3, bookings.size());
+        assertFalse(bookings.hasNext());
+        assertEquals(bookingId3, bookings.getContent().get(0).getId());
+    }
+
+    @Test
+    void findByItemOwnerIdOrderByStartDescIdDesc_whenNotFound_thenReturnEmptyWindow() {
+        Window<Booking> bookings = bookingRepository.findByItemOwnerIdOrderByStartDescIdDesc(100L,
+                ScrollPosition.keyset(), Limit.of(10));
+
+        assertTrue(bookings.isEmpty());
+    }
+
+    @Test
+    void findLastAndNextBookingsByOwnerId_whenFound_thenReturnOneLastAndOneNextBookingPerItem() {
+        Long ownerId = itemRepository.findById(itemId1).orElseThrow().getOwner().getId();
+
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextBookingsByOwnerId(ownerId,
+                LocalDateTime.of(2025, Month.MAY, 12, 12, 0));
+
+        assertEquals(3, bookings.size());
+        ItemBookingView last = bookings.stream()
+                .filter(b -> b.getItemId().equals(itemId1))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(bookingId1, last.getId());
+        assertEquals(LocalDateTime.of(2025, Month.MAY, 10, 12, 0), last.getStartDateTime());
+        assertEquals(LocalDateTime.of(2025, Month.SEPTEMBER, 10, 12, 0), last.getEndDateTime());
+        assertEquals(BookingStatus.APPROVED, last.getStatus());
+        assertTrue(bookings.stream()
+                .filter(b -> !b.getItemId().equals(itemId1))
+                .allMatch(b -> b.getStartDateTime().isAfter(LocalDateTime.of(2025, Month.MAY, 12, 12, 0))));
+    }
+
+    @Test
+    void findLastAndNextBookingsByOwnerId_whenOwnerNotFound_thenReturnEmptyList() {
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextBookingsByOwnerId(100L,
+                LocalDateTime.of(2025, Month.MAY, 12, 12, 0));
+
+        assertTrue(bookings.isEmpty());
+    }
+}
@@ -4,13 +4,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingPartialDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -34,6 +41,8 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingCalendar bookingCalendar;
 
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
@@ -90,7 +99,7 @@ class BookingServiceImplTest {
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item1));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.save(any(Booking.class)))
@@ -109,6 +118,29 @@ class BookingServiceImplTest {
         Mockito.verify(bookingRepository, Mockito.times(1)).save(any(Booking.class));
     }
 
+    @Test
+    void addBooking_whenPeriodOverlapsOtherBooking_thenThrowConflictException() {
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItem().getId())
+                .build();
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item1));
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .doThrow(new ConflictException("Item is already booked"))
+                .when(bookingCalendar).reserve(item1.getId(), booking.getStart(), booking.getEnd());
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(booker.getId(), bookingCreateDto));
+
+        Mockito.verify(bookingRepository, Mockito.never()).save(any(Booking.class));
+    }
+
     @Test
     void addBooking_whenItemNotFound_thenThrowNotFoundException() {
         BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
@@ -139,7 +171,7 @@ class BookingServiceImplTest {
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item1));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -168,7 +200,7 @@ class BookingServiceImplTest {
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(itemFalseAvailable));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
 
         assertThrows(ValidationException.class,
@@ -189,7 +221,7 @@ class BookingServiceImplTest {
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item1));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
 
         assertThrows(ValidationException.class,
@@ -199,6 +231,85 @@ class BookingServiceImplTest {
     }
 
 
+    @Test
+    void addBookings_whenAllCreateParamsIsCorrect_thenSaveAllWithStatusWaiting() {
+        List<BookingCreateDto> bookingCreateDtos = List.of(
+                BookingCreateDto.builder()
+                        .start(booking.getStart())
+                        .end(booking.getEnd())
+                        .itemId(item1.getId())
+                        .build(),
+                BookingCreateDto.builder()
+                        .start(booking.getStart().plusMonths(2))
+                        .end(booking.getEnd().plusMonths(2))
+                        .itemId(item1.getId())
+                        .build());
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(itemRepository.findAllById(eq(List.of(item1.getId()))))
+                .thenReturn(List.of(item1));
+        Mockito
+                .when(bookingRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Booking> bookings = invocation.getArgument(0);
+                    for (int i = 0; i < bookings.size(); i++) {
+                        bookings.get(i).setId(i + 1L);
+                    }
+                    return bookings;
+                });
+
+        List<BookingPartialDto> savedBookings =
+                new ArrayList<>(bookingService.addBookings(booker.getId(), bookingCreateDtos));
+
+        assertEquals(2, savedBookings.size());
+        assertEquals(BookingStatus.WAITING, savedBookings.get(0).getStatus());
+        assertEquals(booking.getStart().plusMonths(2), savedBookings.get(1).getStart());
+        assertEquals(item1.getName(), savedBookings.get(1).getItem().name());
+        Mockito.verify(itemRepository, Mockito.times(1)).findAllById(eq(List.of(item1.getId())));
+        Mockito.verify(bookingCalendar, Mockito.times(2)).reserve(eq(item1.getId()), any(), any());
+        Mockito.verify(bookingRepository, Mockito.never()).save(any(Booking.class));
+    }
+
+    @Test
+    void addBookings_whenItemNotFound_thenThrowNotFoundExceptionAndSaveNothing() {
+        List<BookingCreateDto> bookingCreateDtos = List.of(BookingCreateDto.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(100L)
+                .build());
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(itemRepository.findAllById(anyList()))
+                .thenReturn(List.of());
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.addBookings(booker.getId(), bookingCreateDtos));
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(anyList());
+    }
+
+    @Test
+    void addBookings_whenBookerIsTheOwnerOfItem_thenThrowValidationException() {
+        List<BookingCreateDto> bookingCreateDtos = List.of(BookingCreateDto.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(item1.getId())
+                .build());
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(itemOwner));
+        Mockito
+                .when(itemRepository.findAllById(anyList()))
+                .thenReturn(List.of(item1));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.addBookings(itemOwner.getId(), bookingCreateDtos));
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(anyList());
+    }
+
     @Test
     void updateBookingStatus_whenApprovedParamIsTrue_thenReturnBookingWithStatusAPPROVED() {
         Booking bookingWithStatusWaiting = Booking.builder()
@@ -213,19 +324,18 @@ class BookingServiceImplTest {
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(bookingWithStatusWaiting));
         Mockito
-                .when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking);
+                .when(bookingRepository.updateStatusIfWaiting(booking.getId(), BookingStatus.APPROVED))
+                .thenReturn(1);
 
-        bookingService.updateBookingStatus(itemOwner.getId(),
+        BookingPartialDto updatedBooking = bookingService.updateBookingStatus(itemOwner.getId(),
                 booking.getId(), true);
 
-        Mockito.verify(bookingRepository).save(bookingArgumentCaptor.capture());
-        Booking updatedBooking = bookingArgumentCaptor.getValue();
-
         assertEquals(updatedBooking.getId(), booking.getId());
         assertEquals(updatedBooking.getStart(), booking.getStart());
         assertEquals(updatedBooking.getEnd(), booking.getEnd());
         assertEquals(updatedBooking.getStatus(), BookingStatus.APPROVED);
+        Mockito.verify(bookingRepository, Mockito.never()).save(any(Booking.class));
+        Mockito.verifyNoInteractions(bookingCalendar);
     }
 
     @Test
@@ -242,19 +352,109 @@ class BookingServiceImplTest {
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(bookingWithStatusWaiting));
         Mockito
-                .when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking);
+                .when(bookingRepository.updateStatusIfWaiting(booking.getId(), BookingStatus.REJECTED))
+                .thenReturn(1);
 
-        bookingService.updateBookingStatus(itemOwner.getId(),
+        BookingPartialDto updatedBooking = bookingService.updateBookingStatus(itemOwner.getId(),
                 booking.getId(), false);
 
-        Mockito.verify(bookingRepository).save(bookingArgumentCaptor.capture());
-        Booking updatedBooking = bookingArgumentCaptor.getValue();
-
         assertEquals(updatedBooking.getId(), booking.getId());
-        assertEquals(updatedBooking.getStart(), booking.getStart());
-        assertEquals(updatedBooking.getEnd(), booking.getEnd());
         assertEquals(updatedBooking.getStatus(), BookingStatus.REJECTED);
+        Mockito.verify(bookingCalendar).release(item1.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    @Test
+    void updateBookingStatus_whenSameDecisionRetried_thenReturnBookingWithoutUpdate() {
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        BookingPartialDto updatedBooking = bookingService.updateBookingStatus(itemOwner.getId(),
+                booking.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, updatedBooking.getStatus());
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatusIfWaiting(anyLong(), any());
+        Mockito.verifyNoInteractions(bookingCalendar);
+    }
+
+    @Test
+    void updateBookingStatus_whenOppositeDecisionOnDecidedBooking_thenThrowConflictException() {
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(itemOwner.getId(), booking.getId(), false));
+
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatusIfWaiting(anyLong(), any());
+        Mockito.verifyNoInteractions(bookingCalendar);
+    }
+
+    @Test
+    void updateBookingStatus_whenOwnerRejectsApprovedBooking_thenThrowConflictExceptionAndKeepPeriodReserved() {
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        ConflictException e = assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(itemOwner.getId(), booking.getId(), false));
+
+        assertEquals("Booking with ID: " + booking.getId() + " is already APPROVED", e.getMessage());
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatusIfWaiting(anyLong(), any());
+        Mockito.verify(bookingCalendar, Mockito.never()).release(anyLong(), any(), any());
+    }
+
+    @Test
+    void updateBookingStatus_whenConcurrentSameDecisionWon_thenReturnBookingWithThisStatus() {
+        Booking bookingWithStatusWaiting = Booking.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.WAITING)
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .build();
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(bookingWithStatusWaiting));
+        Mockito
+                .when(bookingRepository.updateStatusIfWaiting(booking.getId(), BookingStatus.APPROVED))
+                .thenReturn(0);
+        Mockito
+                .when(bookingRepository.findStatusById(booking.getId()))
+                .thenReturn(Optional.of(BookingStatus.APPROVED));
+
+        BookingPartialDto updatedBooking = bookingService.updateBookingStatus(itemOwner.getId(),
+                booking.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, updatedBooking.getStatus());
+    }
+
+    @Test
+    void updateBookingStatus_whenConcurrentOppositeDecisionWon_thenThrowConflictException() {
+        Booking bookingWithStatusWaiting = Booking.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.WAITING)
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .build();
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(bookingWithStatusWaiting));
+        Mockito
+                .when(bookingRepository.updateStatusIfWaiting(booking.getId(), BookingStatus.REJECTED))
+                .thenReturn(0);
+        Mockito
+                .when(bookingRepository.findStatusById(booking.getId()))
+                .thenReturn(Optional.of(BookingStatus.APPROVED));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(itemOwner.getId(), booking.getId(), false));
+
+        Mockito.verifyNoInteractions(bookingCalendar);
     }
 
     @Test
@@ -321,15 +521,68 @@ class BookingServiceImplTest {
     }
 
 
+    @Test
+    void getBookingsByIds_whenUserIsBookerOrItemOwner_thenReturnBookingsInRequestedOrder() {
+        Item item2 = Item.builder()
+                .id(2L)
+                .name("item2Name")
+                .description("item2Description")
+                .available(true)
+                .owner(booker)
+                .request(null)
+                .build();
+        Booking booking2 = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusMonths(3))
+                .end(LocalDateTime.now().plusMonths(4))
+                .status(BookingStatus.WAITING)
+                .item(item2)
+                .booker(itemOwner)
+                .build();
+        Mockito
+                .when(bookingRepository.findByIdIn(eq(List.of(booking2.getId(), booking.getId()))))
+                .thenReturn(List.of(booking, booking2));
+
+        List<BookingPartialDto> bookings = new ArrayList<>(bookingService.getBookingsByIds(booker.getId(),
+                List.of(booking2.getId(), booking.getId())));
+
+        assertEquals(2, bookings.size());
+        assertEquals(booking2.getId(), bookings.get(0).getId());
+        assertEquals(booking.getId(), bookings.get(1).getId());
+        Mockito.verify(bookingRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void getBookingsByIds_whenSomeBookingsNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(bookingRepository.findByIdIn(anyList()))
+                .thenReturn(List.of(booking));
+
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> bookingService.getBookingsByIds(booker.getId(), List.of(booking.getId(), 9L)));
+
+        assertTrue(e.getMessage().contains("[9]"));
+    }
+
+    @Test
+    void getBookingsByIds_whenUserIsNotTheOwnerOfItemOrNotTheOwnerOfBooking_thenThrowValidationException() {
+        Mockito
+                .when(bookingRepository.findByIdIn(anyList()))
+                .thenReturn(List.of(booking));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByIds(5L, List.of(booking.getId())));
+    }
+
     @Test
     void getUserBookings_whenBookingStateIsALL_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdOrderByStartDesc(eq(booker.getId())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.ALL));
@@ -347,12 +600,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenBookingStateIsCURRENT_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(eq(booker.getId()),
                         any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.CURRENT));
@@ -371,12 +624,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenBookingStateIsPAST_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(eq(booker.getId()),
                         any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.PAST));
@@ -394,12 +647,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenBookingStateIsFUTURE_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(eq(booker.getId()),
                         any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.FUTURE));
@@ -417,12 +670,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenBookingStateIsWAITING_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(eq(booker.getId()),
                         any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.WAITING));
@@ -440,12 +693,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenBookingStateIsREJECTED_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(booker));
         Mockito
                 .when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(eq(booker.getId()),
                         any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getUserBookings(booker.getId(), BookingState.REJECTED));
@@ -462,7 +715,7 @@ class BookingServiceImplTest {
     @Test
     void getUserBookings_whenBookerIsNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -474,14 +727,14 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsALL_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
                 .thenReturn(List.of(item1));
         Mockito
                 .when(bookingRepository.findByItemIdInOrderByStartDesc(eq(List.of(item1.getId()))))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.ALL));
@@ -499,7 +752,7 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsCURRENT_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -507,7 +760,7 @@ class BookingServiceImplTest {
         Mockito
                 .when(bookingRepository.findByItemIdInAndStartBeforeAndEndAfterOrderByStartDesc(
                         eq(List.of(item1.getId())), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.CURRENT));
@@ -526,7 +779,7 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsPAST_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -534,7 +787,7 @@ class BookingServiceImplTest {
         Mockito
                 .when(bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(eq(List.of(item1.getId())),
                         any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.PAST));
@@ -552,7 +805,7 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsFUTURE_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -560,7 +813,7 @@ class BookingServiceImplTest {
         Mockito
                 .when(bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(eq(List.of(item1.getId())),
                         any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.FUTURE));
@@ -578,7 +831,7 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsWAITING_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -586,7 +839,7 @@ class BookingServiceImplTest {
         Mockito
                 .when(bookingRepository.findByItemIdInAndStatusOrderByStartDesc(eq(List.of(item1.getId())),
                         any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.WAITING));
@@ -604,7 +857,7 @@ class BookingServiceImplTest {
     void getAllUserItemsBookings_whenBookingStateIsREJECTED_thenReturnCollectionOfBookings() {
         List<BookingPartialDto> templateBookings = List.of(BookingMapper.toBookingPartialDto(booking));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -612,7 +865,7 @@ class BookingServiceImplTest {
         Mockito
                 .when(bookingRepository.findByItemIdInAndStatusOrderByStartDesc(eq(List.of(item1.getId())),
                         any(BookingStatus.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingPartialDto(booking)));
 
         List<BookingPartialDto> getBookings =
                 new ArrayList<>(bookingService.getAllUserItemsBookings(itemOwner.getId(), BookingState.REJECTED));
@@ -629,7 +882,7 @@ class BookingServiceImplTest {
     @Test
     void getAllUserItemsBookings_whenBookerIsNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -639,7 +892,7 @@ class BookingServiceImplTest {
     @Test
     void getAllUserItemsBookings_whenUserDoesNotHaveTheItems_thenReturnEmptyList() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(itemOwner));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(anyLong()))
@@ -657,4 +910,56 @@ class BookingServiceImplTest {
         Mockito.verify(bookingRepository, Mockito.never())
                 .findByItemIdInAndStatusOrderByStartDesc(anyList(), any());
     }
+
+    @Test
+    void getUserBookingsPage_whenHasNextPage_thenReturnPageWithCursor() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(booker));
+        Mockito
+                .when(bookingRepository.findByBookerIdOrderByStartDescIdDesc(eq(booker.getId()),
+                        any(ScrollPosition.class), eq(Limit.of(1))))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset, true));
+
+        CursorPage<BookingPartialDto> page = bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                null, 1);
+
+        assertEquals(1, page.content().size());
+        assertEquals(booking.getId(), page.content().get(0).getId());
+        assertEquals(KeysetCursor.encode(booking.getStart(), booking.getId()), page.nextCursor());
+    }
+
+    @Test
+    void getAllUserItemsBookingsPage_whenLastPage_thenReturnPageWithoutCursor() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(itemOwner));
+        Mockito
+                .when(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDescIdDesc(eq(itemOwner.getId()),
+                        eq(BookingStatus.WAITING), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(booking), ScrollPosition::offset, false));
+
+        CursorPage<BookingPartialDto> page = bookingService.getAllUserItemsBookings(itemOwner.getId(),
+                BookingState.WAITING, KeysetCursor.encode(LocalDateTime.now(), 10L), null);
+
+        assertEquals(1, page.content().size());
+        assertFalse(page.hasNext());
+        Mockito.verify(itemRepository, Mockito.never()).findByOwnerIdOrderByIdAsc(anyLong());
+    }
+
+    @Test
+    void getUserBookingsPage_whenCursorIsMalformed_thenThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, "not-a-cursor", 10));
+
+        Mockito.verify(bookingRepository, Mockito.never())
+                .findByBookerIdOrderByStartDescIdDesc(anyLong(), any(), any());
+    }
+
+    @Test
+    void getUserBookingsPage_whenSizeIsTooLarge_thenThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, null,
+                        KeysetCursor.MAX_PAGE_SIZE + 1));
+    }
 }
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DatabaseBookingCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private Long itemId;
+    private Long bookerId;
+    private DatabaseBookingCalendar calendar;
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .id(null)
+                .name("OwnerName")
+                .email("OwnerEmail@Email123.net")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .id(null)
+                .name("BookerName")
+                .email("BookerEmail@Email123.net")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .id(null)
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        itemId = item.getId();
+        bookerId = booker.getId();
+        bookingRepository.saveAll(List.of(
+                booking(item, booker, DAY, DAY.plusDays(2), BookingStatus.APPROVED),
+                booking(item, booker, DAY.plusDays(4), DAY.plusDays(8), BookingStatus.REJECTED),
+                booking(item, booker, DAY.plusDays(5), DAY.plusDays(6), BookingStatus.WAITING),
+                booking(item, booker, DAY.plusDays(10), DAY.plusDays(12), BookingStatus.APPROVED)
+        ));
+        calendar = new DatabaseBookingCalendar(bookingRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository, calendar);
+    }
+
+    @Test
+    void getBusyPeriods_whenIntervalCoversBookings_thenReturnBlockingPeriodsInOrder() {
+        List<BookingPeriod> periods = calendar.getBusyPeriods(itemId, DAY.plusDays(1), DAY.plusDays(11));
+
+        assertEquals(List.of(
+                new BookingPeriod(DAY, DAY.plusDays(2)),
+                new BookingPeriod(DAY.plusDays(5), DAY.plusDays(6)),
+                new BookingPeriod(DAY.plusDays(10), DAY.plusDays(12))
+        ), periods);
+    }
+
+    @Test
+    void getBusyPeriods_whenIntervalIsFree_thenReturnEmptyList() {
+        assertTrue(calendar.getBusyPeriods(itemId, DAY.plusDays(2), DAY.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void reserve_whenPeriodIsFreeOrOnlyRejected_thenDoNotThrow() {
+        assertDoesNotThrow(() -> calendar.reserve(itemId, DAY.plusDays(2), DAY.plusDays(5)));
+        assertDoesNotThrow(() -> calendar.reserve(itemId, DAY.plusDays(6), DAY.plusDays(10)));
+    }
+
+    @Test
+    void reserve_whenPeriodOverlapsBlockingBooking_thenThrowConflictException() {
+        assertThrows(ConflictException.class,
+                () -> calendar.reserve(itemId, DAY.plusDays(1), DAY.plusDays(3)));
+        assertThrows(ConflictException.class,
+                () -> calendar.reserve(itemId, DAY.plusDays(4), DAY.plusDays(9)));
+    }
+
+    @Test
+    void addBookings_whenBatchBookingsOverlapEachOther_thenThrowConflictExceptionAndSaveNothing() {
+        List<BookingCreateDto> batch = List.of(
+                bookingCreateDto(DAY.plusDays(20), DAY.plusDays(22)),
+                bookingCreateDto(DAY.plusDays(14), DAY.plusDays(16)),
+                bookingCreateDto(DAY.plusDays(21), DAY.plusDays(23))
+        );
+
+        assertThrows(ConflictException.class, () -> bookingService.addBookings(bookerId, batch));
+        assertEquals(4, bookingRepository.findByItemId(itemId).size());
+    }
+
+    @Test
+    void addBookings_whenBatchBookingsAreAdjacent_thenSaveAll() {
+        List<BookingCreateDto> batch = List.of(
+                bookingCreateDto(DAY.plusDays(21), DAY.plusDays(22)),
+                bookingCreateDto(DAY.plusDays(20), DAY.plusDays(21))
+        );
+
+        assertEquals(2, bookingService.addBookings(bookerId, batch).size());
+        assertEquals(6, bookingRepository.findByItemId(itemId).size());
+    }
+
+    private BookingCreateDto bookingCreateDto(LocalDateTime start, LocalDateTime end) {
+        return BookingCreateDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(itemId)
+                .build();
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                   BookingStatus status) {
+        return Booking.builder()
+                .id(null)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class InMemoryBookingCalendarTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private Long itemId;
+    private InMemoryBookingCalendar calendar;
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .id(null)
+                .name("OwnerName")
+                .email("OwnerEmail@Email123.net")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .id(null)
+                .name("BookerName")
+                .email("BookerEmail@Email123.net")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .id(null)
+                .name("ItemName")
+                .description("ItemDescription")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        itemId = item.getId();
+        bookingRepository.saveAll(List.of(
+                booking(item, booker, DAY, DAY.plusDays(2), BookingStatus.APPROVED),
+                booking(item, booker, DAY.plusDays(1), DAY.plusDays(3), BookingStatus.WAITING),
+                booking(item, booker, DAY.plusDays(5), DAY.plusDays(6), BookingStatus.REJECTED),
+                booking(item, booker, DAY.plusDays(10), DAY.plusDays(12), BookingStatus.APPROVED)
+        ));
+        calendar = new InMemoryBookingCalendar(bookingRepository, 100);
+    }
+
+    @Test
+    void getBusyPeriods_whenOverlappingBookingsStored_thenMergeThemAndSkipRejected() {
+        List<BookingPeriod> periods = calendar.getBusyPeriods(itemId, DAY.minusDays(1), DAY.plusDays(20));
+
+        assertEquals(List.of(
+                new BookingPeriod(DAY, DAY.plusDays(3)),
+                new BookingPeriod(DAY.plusDays(10), DAY.plusDays(12))
+        ), periods);
+    }
+
+    @Test
+    void getBusyPeriods_whenIntervalStartsInsidePeriod_thenReturnThisPeriod() {
+        List<BookingPeriod> periods = calendar.getBusyPeriods(itemId, DAY.plusDays(11), DAY.plusDays(20));
+
+        assertEquals(List.of(new BookingPeriod(DAY.plusDays(10), DAY.plusDays(12))), periods);
+    }
+
+    @Test
+    void reserve_whenPeriodIsFree_thenPeriodBecomesBusy() {
+        calendar.reserve(itemId, DAY.plusDays(5), DAY.plusDays(6));
+
+        assertEquals(List.of(new BookingPeriod(DAY.plusDays(5), DAY.plusDays(6))),
+                calendar.getBusyPeriods(itemId, DAY.plusDays(4), DAY.plusDays(7)));
+    }
+
+    @Test
+    void reserve_whenPeriodAdjoinsBusyPeriods_thenReserve() {
+        calendar.reserve(itemId, DAY.plusDays(3), DAY.plusDays(10));
+
+        assertEquals(3, calendar.getBusyPeriods(itemId, DAY, DAY.plusDays(20)).size());
+    }
+
+    @Test
+    void reserve_whenPeriodOverlapsBusyPeriod_thenThrowConflictException() {
+        assertThrows(ConflictException.class,
+                () -> calendar.reserve(itemId, DAY.plusDays(9), DAY.plusDays(11)));
+        assertThrows(ConflictException.class,
+                () -> calendar.reserve(itemId, DAY.plusDays(11), DAY.plusDays(11).plusHours(1)));
+        assertThrows(ConflictException.class,
+                () -> calendar.reserve(itemId, DAY.minusDays(1), DAY.plusDays(30)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenPeriodBecomesFree() {
+        calendar.reserve(itemId, DAY.plusDays(5), DAY.plusDays(6));
+
+        TestTransaction.end();
+
+        assertTrue(calendar.getBusyPeriods(itemId, DAY.plusDays(4), DAY.plusDays(7)).isEmpty());
+    }
+
+    @Test
+    void release_whenTransactionActive_thenPeriodStaysBusyUntilCommit() {
+        calendar.release(itemId, DAY.plusDays(10), DAY.plusDays(12));
+
+        assertEquals(1, calendar.getBusyPeriods(itemId, DAY.plusDays(9), DAY.plusDays(13)).size());
+    }
+
+    @Test
+    void release_whenNoTransaction_thenPeriodBecomesFree() {
+        assertEquals(1, calendar.getBusyPeriods(itemId, DAY.plusDays(9), DAY.plusDays(13)).size());
+        TestTransaction.end();
+
+        calendar.release(itemId, DAY.plusDays(10), DAY.plusDays(12));
+
+        assertTrue(calendar.getBusyPeriods(itemId, DAY.plusDays(9), DAY.plusDays(13)).isEmpty());
+        calendar.reserve(itemId, DAY.plusDays(10), DAY.plusDays(12));
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                   BookingStatus status) {
+        return Booking.builder()
+                .id(null)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -71,6 +71,33 @@ class ItemControllerTest {
                 .addItem(eq(userId), any(ItemCreateDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    void addItemsTest() {
+        Long userId = 1L;
+
+        List<ItemCreateDto> itemCreateDtos = List.of(
+                ItemCreateDto.builder().name("Item1").description("ItemDescription1").available(true).build(),
+                ItemCreateDto.builder().name("Item2").description("ItemDescription2").available(false).build());
+        List<ItemPartialDto> itemPartialDtos = List.of(
+                ItemPartialDto.builder().id(1L).name("Item1").description("ItemDescription1").available(true).build(),
+                ItemPartialDto.builder().id(2L).name("Item2").description("ItemDescription2").available(false).build());
+
+        Mockito
+                .when(itemService.addItems(eq(userId), anyList()))
+                .thenReturn(itemPartialDtos);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .content(objectMapper.writeValueAsString(itemCreateDtos))
+                        .contentType("application/json; charset=UTF-8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(itemPartialDtos)));
+
+        Mockito.verify(itemService, Mockito.times(1)).addItems(eq(userId), anyList());
+    }
+
     @SneakyThrows
     @Test
     void updateItemTest() {
@@ -162,6 +189,88 @@ class ItemControllerTest {
                 .getItemById(userId, itemId);
     }
 
+    @SneakyThrows
+    @Test
+    void getItemById_whenEtagMatches_thenNotModifiedWithoutLoadingItem() {
+        Long userId = 2L;
+        Long itemId = 4L;
+        Mockito
+                .when(itemService.getItemEtag(userId, itemId))
+                .thenReturn("item-4-1-c0.0.0");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .header("If-None-Match", "\"item-4-1-c0.0.0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"item-4-1-c0.0.0\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verify(itemService, Mockito.never()).getItemById(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenEtagChanged_thenItemWithNewEtag() {
+        Long userId = 2L;
+        Long itemId = 4L;
+        ItemInfoDto itemInfoDto = ItemInfoDto.builder()
+                .id(itemId)
+                .name("name")
+                .description("description")
+                .available(true)
+                .comments(List.of())
+                .build();
+        Mockito
+                .when(itemService.getItemEtag(userId, itemId))
+                .thenReturn("item-4-2-c0.0.0");
+        Mockito
+                .when(itemService.getItemById(userId, itemId))
+                .thenReturn(itemInfoDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", itemId)
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .header("If-None-Match", "\"item-4-1-c0.0.0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"item-4-2-c0.0.0\""))
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(itemInfoDto)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsByIdsTest() {
+        Long userId = 2L;
+        ItemInfoDto itemInfoDto1 = ItemInfoDto.builder()
+                .id(4L)
+                .name("Item4")
+                .description("Item4Description")
+                .available(true)
+                .comments(List.of())
+                .build();
+        ItemInfoDto itemInfoDto2 = ItemInfoDto.builder()
+                .id(1L)
+                .name("Item1")
+                .description("Item1Description")
+                .available(false)
+                .comments(List.of())
+                .build();
+
+        Mockito
+                .when(itemService.getItemsByIds(eq(userId), eq(List.of(4L, 1L))))
+                .thenReturn(List.of(itemInfoDto1, itemInfoDto2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items")
+                        .param("ids", "4", "1")
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(itemInfoDto1, itemInfoDto2))));
+
+        Mockito.verify(itemService, Mockito.never()).getAllItemsByOwnerId(anyLong());
+    }
+
     @SneakyThrows
     @Test
     void getAllItemsByOwnerIdTest() {
@@ -233,7 +342,7 @@ class ItemControllerTest {
                 .build();
 
         Mockito
-                .when(itemService.getItemsByTextQuery(eq(textQuery)))
+                .when(itemService.getItemsByTextQuery(eq(textQuery), isNull(), isNull()))
                 .thenReturn(List.of(itemPartialDto));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
@@ -246,7 +355,71 @@ class ItemControllerTest {
                         .json(objectMapper.writeValueAsString(List.of(itemPartialDto))));
 
         Mockito.verify(itemService, Mockito.times(1))
-                .getItemsByTextQuery(textQuery);
+                .getItemsByTextQuery(textQuery, null, null);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsByTextQueryTest_whenAvailabilityIntervalIsSet_thenPassItToService() {
+        final String textQuery = "drill";
+        LocalDateTime from = LocalDateTime.of(2030, Month.JANUARY, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+
+        ItemPartialDto itemPartialDto = ItemPartialDto.builder()
+                .id(3L)
+                .name("Drill")
+                .description("ItemDescription")
+                .available(true)
+                .build();
+
+        Mockito
+                .when(itemService.getItemsByTextQuery(textQuery, from, to))
+                .thenReturn(List.of(itemPartialDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/search")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("text", textQuery)
+                        .param("availableFrom", from.toString())
+                        .param("availableTo", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(itemPartialDto))));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getItemsByTextQuery(textQuery, from, to);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAvailabilityTest() {
+        Long userId = 1L;
+        Long itemId = 2L;
+        LocalDateTime from = LocalDateTime.of(2030, Month.JANUARY, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(7);
+
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .available(false)
+                .busy(List.of(new ItemAvailabilityDto.PeriodDto(from.plusDays(1), from.plusDays(2))))
+                .build();
+
+        Mockito
+                .when(itemService.getItemAvailability(itemId, from, to))
+                .thenReturn(availability);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}/availability", itemId)
+                        .header("X-Sharer-User-Id", Long.toString(userId))
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(availability)));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getItemAvailability(itemId, from, to);
     }
 
     @SneakyThrows
@@ -3,7 +3,12 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -29,6 +34,8 @@ class ItemRepositoryTest {
     UserRepository userRepository;
     @Autowired
     ItemRequestRepository requestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
 
     @BeforeEach
     void setUp() {
@@ -137,12 +144,12 @@ class ItemRepositoryTest {
                 .build();
         itemRepository.save(item2);
 
-        List<Item> items = itemRepository.findByTextQuery("qwerty");
+        List<ItemPartialDto> items = itemRepository.findByTextQuery("qwerty", Limit.of(10));
 
         assertEquals(1, items.size());
         assertEquals("itemName2", items.get(0).getName());
         assertEquals("itemDescription2qwerty123", items.get(0).getDescription());
-        assertEquals(true, items.get(0).getAvailable());
+        assertTrue(items.get(0).isAvailable());
     }
 
     @Test
@@ -158,7 +165,7 @@ class ItemRepositoryTest {
                 .build();
         itemRepository.save(item2);
 
-        List<Item> items = itemRepository.findByTextQuery("qwerty");
+        List<ItemPartialDto> items = itemRepository.findByTextQuery("qwerty", Limit.of(10));
 
         assertEquals(0, items.size());
     }
@@ -176,11 +183,82 @@ class ItemRepositoryTest {
                 .build();
         itemRepository.save(item2);
 
-        List<Item> items = itemRepository.findByTextQuery("CVB");
+        List<ItemPartialDto> items = itemRepository.findByTextQuery("CVB", Limit.of(10));
 
         assertEquals(0, items.size());
     }
 
+    @Test
+    @DirtiesContext
+    void findByTextQuery_whenSeveralItemsFound_thenReturnedByRelevanceWithinLimit() {
+        Item descriptionMatch = Item.builder()
+                .id(null)
+                .name("Drill")
+                .description("A cordless screwdriver")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build();
+        Item nameMatch = Item.builder()
+                .id(null)
+                .name("Power screwdriver")
+                .description("Tool")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build();
+        Item namePrefixMatch = Item.builder()
+                .id(null)
+                .name("Screwdriver set")
+                .description("Tool")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build();
+        itemRepository.saveAll(List.of(descriptionMatch, nameMatch, namePrefixMatch));
+
+        List<ItemPartialDto> items = itemRepository.findByTextQuery("SCREWDRIVER", Limit.of(2));
+
+        assertEquals(2, items.size());
+        assertEquals("Screwdriver set", items.get(0).getName());
+        assertEquals("Power screwdriver", items.get(1).getName());
+    }
+
+    @Test
+    @DirtiesContext
+    void findAvailableByTextQuery_whenApprovedBookingOverlapsInterval_thenExcludeItem() {
+        Item item2 = itemRepository.save(Item.builder()
+                .id(null)
+                .name("itemName2")
+                .description("itemDescription2qwerty123")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        Item item3 = itemRepository.save(Item.builder()
+                .id(null)
+                .name("itemName3")
+                .description("itemDescription3qwerty123")
+                .available(true)
+                .owner(owner)
+                .request(null)
+                .build());
+        LocalDateTime from = LocalDateTime.of(2030, Month.JANUARY, 10, 12, 0);
+        bookingRepository.saveAll(List.of(
+                booking(item2, from.minusDays(2), from.plusDays(1), BookingStatus.APPROVED),
+                booking(item3, from.minusDays(2), from.plusDays(1), BookingStatus.WAITING),
+                booking(item3, from.minusDays(5), from, BookingStatus.APPROVED)
+        ));
+
+        List<ItemPartialDto> items = itemRepository.findAvailableByTextQuery("qwerty", from, from.plusDays(3),
+                Limit.of(10));
+
+        assertEquals(1, items.size());
+        assertEquals("itemName3", items.get(0).getName());
+        assertEquals(2, itemRepository.findAvailableByTextQuery("qwerty", from.plusDays(1), from.plusDays(3),
+                Limit.of(10)).size());
+    }
+
     @Test
     @DirtiesContext
     void findByRequestIdInTest() {
@@ -192,6 +270,17 @@ class ItemRepositoryTest {
         assertEquals(true, items.get(0).getAvailable());
     }
 
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .id(null)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(owner)
+                .status(status)
+                .build();
+    }
+
     @AfterEach
     public void clear() {
         userRepository.deleteAll();
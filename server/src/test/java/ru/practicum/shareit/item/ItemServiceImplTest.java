@@ -7,9 +7,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingView;
+import ru.practicum.shareit.booking.ItemBookingsRevisionView;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -39,9 +44,15 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private BookingCalendar bookingCalendar;
 
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<List<Item>> itemsArgumentCaptor;
 
     private final User user1 = User.builder()
             .id(1L)
@@ -82,7 +93,7 @@ class ItemServiceImplTest {
                 .build();
         ItemPartialDto templateItem = ItemMapper.toItemPartialDto(item1);
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
         Mockito
                 .when(itemRequestRepository.findById(eq(item1.getRequest().getId())))
@@ -98,6 +109,7 @@ class ItemServiceImplTest {
         assertEquals(createdItem.getDescription(), templateItem.getDescription());
         assertEquals(createdItem.isAvailable(), templateItem.isAvailable());
         Mockito.verify(itemRepository, Mockito.times(1)).save(any(Item.class));
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).index(item1);
     }
 
     @Test
@@ -110,7 +122,7 @@ class ItemServiceImplTest {
                 .build();
         ItemPartialDto templateItem = ItemMapper.toItemPartialDto(item1);
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
         Mockito
                 .when(itemRepository.save(any(Item.class)))
@@ -135,7 +147,7 @@ class ItemServiceImplTest {
                 .requestId(req1.getId())
                 .build();
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -154,7 +166,7 @@ class ItemServiceImplTest {
                 .requestId(req1.getId())
                 .build();
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
         Mockito
                 .when(itemRequestRepository.findById(eq(item1.getRequest().getId())))
@@ -166,6 +178,75 @@ class ItemServiceImplTest {
         Mockito.verify(itemRepository, Mockito.never()).save(any(Item.class));
     }
 
+    @Test
+    void addItems_whenAllCreateParamsIsCorrect_thenLoadRequestsOnceAndSaveAll() {
+        List<ItemCreateDto> itemCreateDtos = List.of(
+                ItemCreateDto.builder()
+                        .name("item2Name")
+                        .description("item2Description")
+                        .available(true)
+                        .requestId(req1.getId())
+                        .build(),
+                ItemCreateDto.builder()
+                        .name("item3Name")
+                        .description("item3Description")
+                        .available(false)
+                        .requestId(req1.getId())
+                        .build(),
+                ItemCreateDto.builder()
+                        .name("item4Name")
+                        .description("item4Description")
+                        .available(true)
+                        .build());
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.of(user1));
+        Mockito
+                .when(itemRequestRepository.findAllById(eq(List.of(req1.getId()))))
+                .thenReturn(List.of(req1));
+        Mockito
+                .when(itemRepository.saveAll(itemsArgumentCaptor.capture()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    for (int i = 0; i < items.size(); i++) {
+                        items.get(i).setId(i + 1L);
+                    }
+                    return items;
+                });
+
+        List<ItemPartialDto> savedItems = new ArrayList<>(itemService.addItems(user1.getId(), itemCreateDtos));
+
+        assertEquals(3, savedItems.size());
+        assertEquals("item2Name", savedItems.get(0).getName());
+        assertFalse(savedItems.get(1).isAvailable());
+        assertEquals(req1, itemsArgumentCaptor.getValue().get(1).getRequest());
+        assertNull(itemsArgumentCaptor.getValue().get(2).getRequest());
+        Mockito.verify(itemRequestRepository, Mockito.times(1)).findAllById(anyList());
+        Mockito.verify(itemSearchEngine, Mockito.times(3)).index(any(Item.class));
+        Mockito.verify(itemRepository, Mockito.never()).save(any(Item.class));
+    }
+
+    @Test
+    void addItems_whenRequestIfPresentNotFound_thenThrowNotFoundException() {
+        List<ItemCreateDto> itemCreateDtos = List.of(ItemCreateDto.builder()
+                .name(item1.getName())
+                .description(item1.getDescription())
+                .available(item1.getAvailable())
+                .requestId(100L)
+                .build());
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.of(user1));
+        Mockito
+                .when(itemRequestRepository.findAllById(anyList()))
+                .thenReturn(List.of());
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.addItems(user1.getId(), itemCreateDtos));
+
+        Mockito.verify(itemRepository, Mockito.never()).saveAll(anyList());
+    }
+
 
     @Test
     void updateItem_whenUpdateParamsIsCorrect_thenUpdateAndReturnUpdatedItem() {
@@ -192,6 +273,7 @@ class ItemServiceImplTest {
         assertEquals(updatedItem.getDescription(), templateItem.getDescription());
         assertEquals(updatedItem.getAvailable(), templateItem.getAvailable());
         Mockito.verify(itemRepository, Mockito.times(1)).save(any(Item.class));
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).index(item1);
     }
 
     @Test
@@ -387,7 +469,7 @@ class ItemServiceImplTest {
                 .when(commentRepository.findByItemId(eq(itemWithOtherOwner.getId())))
                 .thenReturn(List.of());
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
 
         ItemInfoDto getItem = itemService.getItemById(user1.getId(), itemWithOtherOwner.getId());
@@ -431,13 +513,120 @@ class ItemServiceImplTest {
                 .when(commentRepository.findByItemId(eq(itemWithOtherOwner.getId())))
                 .thenReturn(List.of());
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> itemService.getItemById(user1.getId(), itemWithOtherOwner.getId()));
     }
 
+    @Test
+    void getItemsByIds_whenOwnAndOtherItems_thenBookingsOnlyForOwnItemsInRequestedOrder() {
+        Item itemWithOtherOwner = Item.builder()
+                .id(3L)
+                .name("item3Name")
+                .description("item3Description")
+                .available(true)
+                .owner(user2)
+                .request(null)
+                .build();
+        Booking bookingLast = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusMonths(3))
+                .end(LocalDateTime.now().minusMonths(2))
+                .status(BookingStatus.APPROVED)
+                .item(item1)
+                .booker(user2)
+                .build();
+        Comment comment = Comment.builder()
+                .id(1L)
+                .text("comment1Text")
+                .item(itemWithOtherOwner)
+                .author(user1)
+                .created(LocalDateTime.now().minusDays(1))
+                .build();
+        Mockito
+                .when(itemRepository.findByIdIn(eq(List.of(itemWithOtherOwner.getId(), item1.getId()))))
+                .thenReturn(List.of(item1, itemWithOtherOwner));
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.of(user1));
+        Mockito
+                .when(bookingRepository.findByItemIdIn(eq(List.of(item1.getId()))))
+                .thenReturn(List.of(bookingLast));
+        Mockito
+                .when(commentRepository.findByItemIdInOrderByItemIdAsc(anyList()))
+                .thenReturn(List.of(comment));
+
+        List<ItemInfoDto> items = new ArrayList<>(itemService.getItemsByIds(user1.getId(),
+                List.of(itemWithOtherOwner.getId(), item1.getId(), itemWithOtherOwner.getId())));
+
+        assertEquals(2, items.size());
+        assertEquals(itemWithOtherOwner.getId(), items.get(0).getId());
+        assertNull(items.get(0).getLastBooking());
+        assertEquals(1, items.get(0).getComments().size());
+        assertEquals(item1.getId(), items.get(1).getId());
+        assertEquals(bookingLast.getId(), items.get(1).getLastBooking().id());
+        assertTrue(items.get(1).getComments().isEmpty());
+        Mockito.verify(itemRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void getItemsByIds_whenSomeItemsNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(itemRepository.findByIdIn(anyList()))
+                .thenReturn(List.of(item1));
+
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> itemService.getItemsByIds(user1.getId(), List.of(item1.getId(), 5L)));
+
+        assertTrue(e.getMessage().contains("[5]"));
+        Mockito.verify(commentRepository, Mockito.never()).findByItemIdInOrderByItemIdAsc(anyList());
+    }
+
+    @Test
+    void getItemEtag_whenUserIsNotTheOwnerOfItem_thenEtagWithoutBookings() {
+        ItemRevisionView itemRevision = itemRevisionView(user1.getId(), 3L, 2L, 7L, 4L);
+        Mockito
+                .when(itemRepository.findRevisionById(eq(item1.getId())))
+                .thenReturn(Optional.of(itemRevision));
+        Mockito
+                .when(userRepository.findCachedById(eq(user2.getId())))
+                .thenReturn(Optional.of(user2));
+
+        String etag = itemService.getItemEtag(user2.getId(), item1.getId());
+
+        assertEquals("item-" + item1.getId() + "-3-c2.7.4", etag);
+        Mockito.verify(bookingRepository, Mockito.never()).findRevisionByItemId(anyLong(), any());
+    }
+
+    @Test
+    void getItemEtag_whenUserIsTheOwnerOfItem_thenEtagWithBookings() {
+        ItemRevisionView itemRevision = itemRevisionView(user1.getId(), 3L, 0L, 0L, 0L);
+        Mockito
+                .when(itemRepository.findRevisionById(eq(item1.getId())))
+                .thenReturn(Optional.of(itemRevision));
+        ItemBookingsRevisionView bookingsRevision = itemBookingsRevisionView(5L, 9L, 2L, 1L);
+        Mockito
+                .when(bookingRepository.findRevisionByItemId(eq(item1.getId()), any(LocalDateTime.class)))
+                .thenReturn(bookingsRevision);
+
+        String etag = itemService.getItemEtag(user1.getId(), item1.getId());
+
+        assertEquals("item-" + item1.getId() + "-3-c0.0.0-b5.9.2.1", etag);
+        Mockito.verify(userRepository, Mockito.never()).findCachedById(anyLong());
+    }
+
+    @Test
+    void getItemEtag_whenItemNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(itemRepository.findRevisionById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.getItemEtag(user1.getId(), item1.getId()));
+    }
+
 
     @Test
     void getAllItemsByOwnerId_whenUserFound_thenReturnCollectionOfItems() {
@@ -466,14 +655,14 @@ class ItemServiceImplTest {
                 ItemMapper.toItemInfoDto(item1, List.of(bookingLast, bookingNext), List.of())
         );
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
         Mockito
                 .when(itemRepository.findByOwnerIdOrderByIdAsc(eq(user1.getId())))
                 .thenReturn(List.of(item1));
         Mockito
-                .when(bookingRepository.findByItemIdInOrderByItemIdAsc(eq(List.of(item1.getId()))))
-                .thenReturn(List.of(bookingLast, bookingNext));
+                .when(bookingRepository.findLastAndNextBookingsByOwnerId(eq(user1.getId()), any(LocalDateTime.class)))
+                .thenReturn(List.of(toItemBookingView(bookingLast), toItemBookingView(bookingNext)));
         Mockito
                 .when(commentRepository.findByItemIdInOrderByItemIdAsc(eq(List.of(item1.getId()))))
                 .thenReturn(List.of());
@@ -491,15 +680,30 @@ class ItemServiceImplTest {
         Mockito.verify(itemRepository, Mockito.times(1))
                 .findByOwnerIdOrderByIdAsc(user1.getId());
         Mockito.verify(bookingRepository, Mockito.times(1))
-                .findByItemIdInOrderByItemIdAsc(List.of(item1.getId()));
+                .findLastAndNextBookingsByOwnerId(eq(user1.getId()), any(LocalDateTime.class));
         Mockito.verify(commentRepository, Mockito.times(1))
                 .findByItemIdInOrderByItemIdAsc(List.of(item1.getId()));
     }
 
+    @Test
+    void getAllItemsByOwnerId_whenUserHasNoItems_thenReturnEmptyListWithoutBookingsQuery() {
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.of(user1));
+        Mockito
+                .when(itemRepository.findByOwnerIdOrderByIdAsc(eq(user1.getId())))
+                .thenReturn(List.of());
+
+        assertTrue(itemService.getAllItemsByOwnerId(user1.getId()).isEmpty());
+
+        Mockito.verify(bookingRepository, Mockito.never()).findLastAndNextBookingsByOwnerId(anyLong(), any());
+        Mockito.verify(commentRepository, Mockito.never()).findByItemIdInOrderByItemIdAsc(anyList());
+    }
+
     @Test
     void getAllItemsByOwnerId_whenUserNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -512,27 +716,127 @@ class ItemServiceImplTest {
         final String textQuery = "item";
         List<ItemPartialDto> templateItems = List.of(ItemMapper.toItemPartialDto(item1));
         Mockito
-                .when(itemRepository.findByTextQuery(eq(textQuery)))
-                .thenReturn(List.of(item1));
+                .when(itemSearchEngine.search(eq(textQuery)))
+                .thenReturn(templateItems);
 
-        List<ItemPartialDto> getItems = new ArrayList<>(itemService.getItemsByTextQuery(textQuery));
+        List<ItemPartialDto> getItems = new ArrayList<>(itemService.getItemsByTextQuery(textQuery, null, null));
 
         assertEquals(getItems.size(), templateItems.size());
         assertEquals(getItems.get(0).getId(), templateItems.get(0).getId());
         assertEquals(getItems.get(0).getName(), templateItems.get(0).getName());
         assertEquals(getItems.get(0).getDescription(), templateItems.get(0).getDescription());
         assertEquals(getItems.get(0).isAvailable(), templateItems.get(0).isAvailable());
-        Mockito.verify(itemRepository, Mockito.times(1)).findByTextQuery(textQuery);
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).search(textQuery);
     }
 
     @Test
     void getItemsByTextQuery_whenTextQueryIsBlank_thenReturnEmptyCollection() {
         final String textQuery = "    ";
 
-        List<ItemPartialDto> getItems = new ArrayList<>(itemService.getItemsByTextQuery(textQuery));
+        List<ItemPartialDto> getItems = new ArrayList<>(itemService.getItemsByTextQuery(textQuery, null, null));
 
         assertTrue(getItems.isEmpty());
-        Mockito.verify(itemRepository, Mockito.never()).findByTextQuery(textQuery);
+        Mockito.verify(itemSearchEngine, Mockito.never()).search(textQuery);
+    }
+
+
+    @Test
+    void getItemsByTextQuery_whenAvailabilityIntervalIsSet_thenSearchAvailableItems() {
+        final String textQuery = "item";
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        List<ItemPartialDto> templateItems = List.of(ItemMapper.toItemPartialDto(item1));
+        Mockito
+                .when(itemSearchEngine.searchAvailable(textQuery, from, to))
+                .thenReturn(templateItems);
+
+        List<ItemPartialDto> getItems = new ArrayList<>(itemService.getItemsByTextQuery(textQuery, from, to));
+
+        assertEquals(1, getItems.size());
+        assertEquals(item1.getId(), getItems.get(0).getId());
+        Mockito.verify(itemSearchEngine, Mockito.never()).search(anyString());
+    }
+
+    @Test
+    void getItemsByTextQuery_whenOnlyOneIntervalBoundIsSet_thenThrowValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsByTextQuery("item", from, null));
+
+        Mockito.verifyNoInteractions(itemSearchEngine);
+    }
+
+    @Test
+    void getItemsByTextQuery_whenAvailableFromIsNotBeforeAvailableTo_thenThrowValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsByTextQuery("item", from, from.minusDays(1)));
+
+        Mockito.verifyNoInteractions(itemSearchEngine);
+    }
+
+
+    @Test
+    void getItemAvailability_whenPeriodIsBusy_thenReturnNotAvailableWithBusyPeriods() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        BookingPeriod period = new BookingPeriod(from.minusDays(1), from.plusDays(2));
+        Mockito
+                .when(itemRepository.findById(eq(item1.getId())))
+                .thenReturn(Optional.of(item1));
+        Mockito
+                .when(bookingCalendar.getBusyPeriods(item1.getId(), from, to))
+                .thenReturn(List.of(period));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(item1.getId(), from, to);
+
+        assertEquals(item1.getId(), availability.getItemId());
+        assertFalse(availability.isAvailable());
+        assertEquals(1, availability.getBusy().size());
+        assertEquals(period.start(), availability.getBusy().get(0).start());
+        assertEquals(period.end(), availability.getBusy().get(0).end());
+    }
+
+    @Test
+    void getItemAvailability_whenNoBusyPeriods_thenReturnAvailable() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Mockito
+                .when(itemRepository.findById(eq(item1.getId())))
+                .thenReturn(Optional.of(item1));
+        Mockito
+                .when(bookingCalendar.getBusyPeriods(item1.getId(), from, to))
+                .thenReturn(List.of());
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(item1.getId(), from, to);
+
+        assertTrue(availability.isAvailable());
+        assertTrue(availability.getBusy().isEmpty());
+    }
+
+    @Test
+    void getItemAvailability_whenFromIsNotBeforeTo_thenThrowValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(item1.getId(), from, from));
+
+        Mockito.verifyNoInteractions(bookingCalendar);
+    }
+
+    @Test
+    void getItemAvailability_whenItemNotFound_thenThrowNotFoundException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.getItemAvailability(100L, from, from.plusDays(1)));
+
+        Mockito.verifyNoInteractions(bookingCalendar);
     }
 
 
@@ -605,4 +909,54 @@ class ItemServiceImplTest {
 
         Mockito.verify(commentRepository, Mockito.never()).save(any(Comment.class));
     }
+
+    private static ItemRevisionView itemRevisionView(Long ownerId, Long version, Long commentsCount,
+                                                     Long lastCommentId, Long commentAuthorsVersion) {
+        ItemRevisionView view = Mockito.mock(ItemRevisionView.class);
+        Mockito.lenient().when(view.getOwnerId()).thenReturn(ownerId);
+        Mockito.lenient().when(view.getVersion()).thenReturn(version);
+        Mockito.lenient().when(view.getCommentsCount()).thenReturn(commentsCount);
+        Mockito.lenient().when(view.getLastCommentId()).thenReturn(lastCommentId);
+        Mockito.lenient().when(view.getCommentAuthorsVersion()).thenReturn(commentAuthorsVersion);
+        return view;
+    }
+
+    private static ItemBookingsRevisionView itemBookingsRevisionView(Long count, Long lastId, Long version,
+                                                                     Long startedCount) {
+        ItemBookingsRevisionView view = Mockito.mock(ItemBookingsRevisionView.class);
+        Mockito.lenient().when(view.getCount()).thenReturn(count);
+        Mockito.lenient().when(view.getLastId()).thenReturn(lastId);
+        Mockito.lenient().when(view.getVersion()).thenReturn(version);
+        Mockito.lenient().when(view.getStartedCount()).thenReturn(startedCount);
+        return view;
+    }
+
+    private static ItemBookingView toItemBookingView(Booking booking) {
+        return new ItemBookingView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public LocalDateTime getStartDateTime() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEndDateTime() {
+                return booking.getEnd();
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return booking.getStatus();
+            }
+        };
+    }
 }
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemPartialDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class InMemoryItemSearchEngineTest {
+    private User owner;
+    private InMemoryItemSearchEngine searchEngine;
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .id(null)
+                .name("OwnerName")
+                .email("OwnerEmail@Email123.net")
+                .build());
+        itemRepository.saveAll(List.of(
+                buildItem("Drill", "A cordless screwdriver", true),
+                buildItem("Power screwdriver", "Tool", true),
+                buildItem("Screwdriver set", "Tool", true),
+                buildItem("Old screwdriver", "Broken tool", false)
+        ));
+        searchEngine = new InMemoryItemSearchEngine(itemRepository, 10);
+        searchEngine.loadIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!TestTransaction.isActive()) {
+            // данные, зафиксированные тестом, удаляются, чтобы не влиять на другие тесты
+            itemRepository.deleteAll(itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()));
+            userRepository.deleteById(owner.getId());
+        }
+    }
+
+    @Test
+    void search_whenItemsFound_thenReturnAvailableItemsByRelevance() {
+        List<ItemPartialDto> items = searchEngine.search("ScrewDriver");
+
+        assertEquals(3, items.size());
+        assertEquals("Screwdriver set", items.get(0).getName());
+        assertEquals("Power screwdriver", items.get(1).getName());
+        assertEquals("Drill", items.get(2).getName());
+    }
+
+    @Test
+    void search_whenTextQueryIsShorterThanGram_thenReturnMatchedItems() {
+        List<ItemPartialDto> items = searchEngine.search("ri");
+
+        assertEquals(3, items.size());
+    }
+
+    @Test
+    void search_whenResultsExceedLimit_thenReturnLimitedList() {
+        InMemoryItemSearchEngine limitedEngine = new InMemoryItemSearchEngine(itemRepository, 1);
+        limitedEngine.loadIndex();
+
+        List<ItemPartialDto> items = limitedEngine.search("screwdriver");
+
+        assertEquals(1, items.size());
+        assertEquals("Screwdriver set", items.get(0).getName());
+    }
+
+    @Test
+    void searchAvailable_whenBestMatchIsApprovedInInterval_thenSkipItBeforeLimit() {
+        InMemoryItemSearchEngine limitedEngine = new InMemoryItemSearchEngine(itemRepository, 1);
+        limitedEngine.loadIndex();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Item screwdriverSet = itemRepository.findById(limitedEngine.search("screwdriver").getFirst().getId())
+                .orElseThrow();
+        bookingRepository.save(Booking.builder()
+                .id(null)
+                .start(from.minusDays(1))
+                .end(from.plusDays(1))
+                .item(screwdriverSet)
+                .booker(owner)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<ItemPartialDto> items = limitedEngine.searchAvailable("screwdriver", from, from.plusDays(2));
+
+        assertEquals(1, items.size());
+        assertEquals("Power screwdriver", items.get(0).getName());
+        assertEquals("Screwdriver set",
+                limitedEngine.searchAvailable("screwdriver", from.plusDays(1), from.plusDays(2)).get(0).getName());
+    }
+
+    @Test
+    void searchAvailable_whenFirstChunkIsBooked_thenQueryNextChunk() {
+        InMemoryItemSearchEngine limitedEngine = new InMemoryItemSearchEngine(itemRepository, 1);
+        limitedEngine.loadIndex();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (ItemPartialDto found : List.of(limitedEngine.search("screwdriver set").getFirst(),
+                limitedEngine.search("power screwdriver").getFirst())) {
+            bookingRepository.save(Booking.builder()
+                    .id(null)
+                    .start(from)
+                    .end(from.plusDays(1))
+                    .item(itemRepository.findById(found.getId()).orElseThrow())
+                    .booker(owner)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+
+        List<ItemPartialDto> items = limitedEngine.searchAvailable("screwdriver", from, from.plusDays(1));
+
+        assertEquals(1, items.size());
+        assertEquals("Drill", items.get(0).getName());
+    }
+
+    @Test
+    void search_whenNothingMatched_thenReturnEmptyList() {
+        assertTrue(searchEngine.search("hammer").isEmpty());
+    }
+
+    @Test
+    void index_whenTransactionCommitted_thenSearchReflectsNewValues() {
+        Item item = itemRepository.findById(searchEngine.search("drill").getFirst().getId()).orElseThrow();
+        item.setName("Hammer drill");
+        item.setAvailable(true);
+        searchEngine.index(itemRepository.save(item));
+        assertTrue(searchEngine.search("hammer").isEmpty());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertEquals("Hammer drill", searchEngine.search("hammer").getFirst().getName());
+        assertEquals(4, searchEngine.size());
+    }
+
+    @Test
+    void index_whenUpdateRolledBack_thenSearchKeepsCommittedValues() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+        Item item = itemRepository.findById(searchEngine.search("drill").getFirst().getId()).orElseThrow();
+        item.setName("Hammer drill");
+        searchEngine.index(itemRepository.save(item));
+
+        TestTransaction.end();
+
+        assertTrue(searchEngine.search("hammer").isEmpty());
+        assertEquals("Drill", searchEngine.search("drill").getFirst().getName());
+    }
+
+    @Test
+    void index_whenInsertRolledBack_thenItemIsNotIndexed() {
+        searchEngine.index(itemRepository.save(buildItem("Hammer", "Tool", true)));
+
+        TestTransaction.end();
+
+        assertEquals(4, searchEngine.size());
+    }
+
+    @Test
+    void search_whenIndexedItemWasDeleted_thenSkipAndEvictIt() {
+        Item item = itemRepository.findById(searchEngine.search("drill").getFirst().getId()).orElseThrow();
+        itemRepository.delete(item);
+
+        assertTrue(searchEngine.search("drill").isEmpty());
+        assertEquals(3, searchEngine.size());
+    }
+
+    private Item buildItem(String name, String description, boolean available) {
+        return Item.builder()
+                .id(null)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .request(null)
+                .build();
+    }
+}
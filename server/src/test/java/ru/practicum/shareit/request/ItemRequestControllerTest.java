@@ -12,6 +12,8 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
@@ -20,9 +22,11 @@ import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -102,6 +106,42 @@ class ItemRequestControllerTest {
                 .getItemRequestById(anyLong(), anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getItemRequestById_whenEtagMatches_thenNotModified() {
+        Long userId = 1L;
+        Long itemRequestId = 1L;
+        Mockito
+                .when(itemRequestService.getItemRequestEtag(userId, itemRequestId))
+                .thenReturn("request-1-1.1-i0.0.0");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/requests/{requestId}", itemRequestId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", "\"request-1-1.1-i0.0.0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"request-1-1.1-i0.0.0\""));
+
+        Mockito.verify(itemRequestService, Mockito.never()).getItemRequestById(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllItemRequestsByOwnerId_whenEtagMatches_thenNotModified() {
+        Long userId = 1L;
+        Mockito
+                .when(itemRequestService.getItemRequestsEtag(userId))
+                .thenReturn("requests-1-2.5-i1.3.0");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/requests")
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", "\"requests-1-2.5-i1.3.0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(itemRequestService, Mockito.never()).getAllItemRequestsByOwnerId(anyLong());
+    }
+
     @SneakyThrows
     @Test
     void getAllItemRequestsByOwnerIdTest() {
@@ -171,4 +211,81 @@ class ItemRequestControllerTest {
         Mockito.verify(itemRequestService, Mockito.times(1))
                 .getAllItemRequestsOfOtherUsers(anyLong());
     }
+
+    @SneakyThrows
+    @Test
+    void getAllItemRequestsOfOtherUsersTest_whenSizeParamIsSet_thenReturnedPageWithNextCursorHeader() {
+        Long userId = 1L;
+        String nextCursor = "next-cursor-token";
+        ItemRequestShortDto itemRequestShortDto = ItemRequestShortDto.builder()
+                .id(5L)
+                .description("ItemRequest5Description")
+                .created(LocalDateTime.of(2025, Month.MAY, 20, 12, 0))
+                .build();
+
+        Mockito
+                .when(itemRequestService.getAllItemRequestsOfOtherUsers(eq(userId), eq(null), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(itemRequestShortDto), nextCursor));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/requests/all")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header()
+                        .string(ItemRequestController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(MockMvcResultMatchers.content()
+                        .json(objectMapper.writeValueAsString(List.of(itemRequestShortDto))));
+
+        Mockito.verify(itemRequestService, Mockito.never()).getAllItemRequestsOfOtherUsers(userId);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllItemRequestsOfOtherUsersTest_whenAcceptNdjson_thenStreamedOneRequestPerLine() {
+        Long userId = 1L;
+        ItemRequestShortDto itemRequestShortDto1 = ItemRequestShortDto.builder()
+                .id(2L)
+                .description("ItemRequest2Description")
+                .created(LocalDateTime.of(2025, Month.MAY, 20, 12, 0))
+                .build();
+        ItemRequestShortDto itemRequestShortDto2 = ItemRequestShortDto.builder()
+                .id(1L)
+                .description("ItemRequest1Description")
+                .created(LocalDateTime.of(2025, Month.MAY, 10, 12, 0))
+                .build();
+
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<ItemRequestShortDto> action = invocation.getArgument(1);
+                    action.accept(itemRequestShortDto1);
+                    action.accept(itemRequestShortDto2);
+                    return null;
+                })
+                .when(itemRequestService).streamAllItemRequestsOfOtherUsers(eq(userId), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/requests/all")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(itemRequestShortDto1) + "\n" +
+                                objectMapper.writeValueAsString(itemRequestShortDto2) + "\n"));
+
+        Mockito.verify(itemRequestService, Mockito.never()).getAllItemRequestsOfOtherUsers(anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllItemRequestsOfOtherUsersTest_whenAcceptNdjsonAndUserNotFound_thenNotFound() {
+        Mockito
+                .doThrow(new NotFoundException("User not found by id: 1"))
+                .when(itemRequestService).streamAllItemRequestsOfOtherUsers(eq(1L), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/requests/all")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -5,15 +5,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.request.dto.ItemRequestShortDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRequestRepositoryTest {
@@ -78,7 +86,7 @@ class ItemRequestRepositoryTest {
     @Test
     @DirtiesContext
     void findByRequesterIdNotOrderByCreatedDescTest() {
-        List<ItemRequest> requests = requestRepository.findByRequesterIdNotOrderByCreatedDesc(requesterId);
+        List<ItemRequestShortDto> requests = requestRepository.findByRequesterIdNotOrderByCreatedDesc(requesterId);
 
         assertEquals(0, requests.size());
 
@@ -104,6 +112,42 @@ class ItemRequestRepositoryTest {
         assertEquals(1, requests.size());
     }
 
+    @Test
+    @DirtiesContext
+    void findByRequesterIdNotOrderByCreatedDescIdDesc_whenSameCreated_thenPagesOrderedById() {
+        User requester = userRepository.findById(requesterId).orElseThrow();
+        ItemRequest sameCreated = requestRepository.save(ItemRequest.builder()
+                .id(null)
+                .description("sameCreated")
+                .created(LocalDateTime.of(2025, Month.MAY, 11, 12, 0))
+                .requester(requester)
+                .build());
+
+        Window<ItemRequestShortDto> firstPage = requestRepository.findByRequesterIdNotOrderByCreatedDescIdDesc(-1L,
+                ScrollPosition.keyset(), Limit.of(2));
+
+        assertEquals(List.of(3L, sameCreated.getId()), firstPage.stream().map(ItemRequestShortDto::getId).toList());
+        assertTrue(firstPage.hasNext());
+
+        ItemRequestShortDto last = firstPage.getContent().getLast();
+        Window<ItemRequestShortDto> secondPage = requestRepository.findByRequesterIdNotOrderByCreatedDescIdDesc(-1L,
+                ScrollPosition.forward(Map.of("created", last.getCreated(), "id", last.getId())), Limit.of(2));
+
+        assertEquals(List.of(2L, 1L), secondPage.stream().map(ItemRequestShortDto::getId).toList());
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    @DirtiesContext
+    void streamByRequesterIdNotTest() {
+        try (Stream<ItemRequestShortDto> requests = requestRepository.streamByRequesterIdNot(-1L)) {
+            assertEquals(List.of(3L, 2L, 1L), requests.map(ItemRequestShortDto::getId).toList());
+        }
+        try (Stream<ItemRequestShortDto> requests = requestRepository.streamByRequesterIdNot(requesterId)) {
+            assertEquals(0, requests.count());
+        }
+    }
+
     @AfterEach
     public void clear() {
         userRepository.deleteAll();
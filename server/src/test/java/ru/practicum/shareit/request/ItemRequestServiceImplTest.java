@@ -6,9 +6,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestShortDto;
@@ -19,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -72,7 +79,7 @@ class ItemRequestServiceImplTest {
                 .build();
         ItemRequestShortDto templateRequest = ItemRequestMapper.toItemRequestShortDto(request);
         Mockito
-                .when(userRepository.findById(eq(requester.getId())))
+                .when(userRepository.findCachedById(eq(requester.getId())))
                 .thenReturn(Optional.of(requester));
         Mockito
                 .when(itemRequestRepository.save(any(ItemRequest.class)))
@@ -93,7 +100,7 @@ class ItemRequestServiceImplTest {
                 .build();
         ItemRequestShortDto templateRequest = ItemRequestMapper.toItemRequestShortDto(request);
         Mockito
-                .when(userRepository.findById(eq(requester.getId())))
+                .when(userRepository.findCachedById(eq(requester.getId())))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -107,7 +114,7 @@ class ItemRequestServiceImplTest {
     void getAllItemRequestsByOwnerId_whenRequesterFound_thenReturnCollectionOfItemRequests() {
         List<ItemRequestDto> templateRequests = List.of(ItemRequestMapper.toItemRequestDto(request, List.of(item1)));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(requester));
         Mockito
                 .when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(anyLong()))
@@ -126,10 +133,62 @@ class ItemRequestServiceImplTest {
         assertEquals(getRequests.get(0).getItems().size(), templateRequests.get(0).getItems().size());
     }
 
+    @Test
+    void getAllItemRequestsByOwnerId_whenSeveralRequests_thenItemsGroupedByRequest() {
+        ItemRequest request2 = ItemRequest.builder()
+                .id(2L)
+                .description("request2 description")
+                .created(LocalDateTime.now().minusDays(10))
+                .requester(requester)
+                .build();
+        ItemRequest request3 = ItemRequest.builder()
+                .id(3L)
+                .description("request3 description")
+                .created(LocalDateTime.now().minusDays(5))
+                .requester(requester)
+                .build();
+        Item item2 = Item.builder()
+                .id(2L)
+                .name("item2Name")
+                .description("item2Description")
+                .available(true)
+                .owner(itemOwner)
+                .request(request3)
+                .build();
+        Item item3 = Item.builder()
+                .id(3L)
+                .name("item3Name")
+                .description("item3Description")
+                .available(true)
+                .owner(itemOwner)
+                .request(request)
+                .build();
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        Mockito
+                .when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(request3, request2, request));
+        Mockito
+                .when(itemRepository.findByRequestIdIn(anyList()))
+                .thenReturn(List.of(item1, item2, item3));
+
+        List<ItemRequestDto> getRequests =
+                new ArrayList<>(itemRequestService.getAllItemRequestsByOwnerId(requester.getId()));
+
+        assertEquals(List.of(3L, 2L, 1L), getRequests.stream().map(ItemRequestDto::getId).toList());
+        assertEquals(List.of(2L), getRequests.get(0).getItems().stream()
+                .map(ItemRequestDto.ItemShortDto::id).toList());
+        assertTrue(getRequests.get(1).getItems().isEmpty());
+        assertEquals(List.of(1L, 3L), getRequests.get(2).getItems().stream()
+                .map(ItemRequestDto.ItemShortDto::id).toList());
+        Mockito.verify(itemRepository, Mockito.times(1)).findByRequestIdIn(anyList());
+    }
+
     @Test
     void getAllItemRequestsByOwnerId_whenRequesterNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -141,11 +200,11 @@ class ItemRequestServiceImplTest {
     void getAllItemRequestsOfOtherUsers_whenRequesterFound_thenReturnCollectionOfItemRequests() {
         List<ItemRequestShortDto> templateRequests = List.of(ItemRequestMapper.toItemRequestShortDto(request));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(requester));
         Mockito
                 .when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(eq(requester.getId())))
-                .thenReturn(List.of(request));
+                .thenReturn(templateRequests);
 
         List<ItemRequestShortDto> getRequests =
                 new ArrayList<>(itemRequestService.getAllItemRequestsOfOtherUsers(requester.getId()));
@@ -161,19 +220,89 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllItemRequestsOfOtherUsers_whenRequesterNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getAllItemRequestsOfOtherUsers(requester.getId()));
     }
 
+    @Test
+    void getAllItemRequestsOfOtherUsersPage_whenHasNext_thenReturnPageWithCursor() {
+        ItemRequestShortDto templateRequest = ItemRequestMapper.toItemRequestShortDto(request);
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        Mockito
+                .when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDescIdDesc(eq(requester.getId()),
+                        any(ScrollPosition.class), eq(Limit.of(1))))
+                .thenReturn(Window.from(List.of(templateRequest), ScrollPosition::offset, true));
+
+        CursorPage<ItemRequestShortDto> page =
+                itemRequestService.getAllItemRequestsOfOtherUsers(requester.getId(), null, 1);
+
+        assertEquals(1, page.content().size());
+        assertEquals(request.getId(), page.content().get(0).getId());
+        assertEquals(KeysetCursor.encode(request.getCreated(), request.getId()), page.nextCursor());
+    }
+
+    @Test
+    void getAllItemRequestsOfOtherUsersPage_whenLastPage_thenReturnPageWithoutCursor() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        Mockito
+                .when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDescIdDesc(eq(requester.getId()),
+                        any(ScrollPosition.class), eq(Limit.of(KeysetCursor.DEFAULT_PAGE_SIZE))))
+                .thenReturn(Window.from(List.of(ItemRequestMapper.toItemRequestShortDto(request)),
+                        ScrollPosition::offset, false));
+
+        CursorPage<ItemRequestShortDto> page = itemRequestService.getAllItemRequestsOfOtherUsers(requester.getId(),
+                KeysetCursor.encode(LocalDateTime.now(), 10L), null);
+
+        assertEquals(1, page.content().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getAllItemRequestsOfOtherUsersPage_whenCursorIsMalformed_thenThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> itemRequestService.getAllItemRequestsOfOtherUsers(requester.getId(), "not-a-cursor", 10));
+        Mockito.verifyNoInteractions(itemRequestRepository);
+    }
+
+    @Test
+    void streamAllItemRequestsOfOtherUsers_whenRequesterFound_thenPassEveryRequestToAction() {
+        ItemRequestShortDto templateRequest = ItemRequestMapper.toItemRequestShortDto(request);
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        Mockito
+                .when(itemRequestRepository.streamByRequesterIdNot(eq(requester.getId())))
+                .thenReturn(Stream.of(templateRequest, templateRequest));
+        List<ItemRequestShortDto> streamed = new ArrayList<>();
+
+        itemRequestService.streamAllItemRequestsOfOtherUsers(requester.getId(), streamed::add);
+
+        assertEquals(List.of(templateRequest, templateRequest), streamed);
+    }
+
+    @Test
+    void streamAllItemRequestsOfOtherUsers_whenRequesterNotFound_thenThrowBeforeReading() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> itemRequestService.streamAllItemRequestsOfOtherUsers(requester.getId(), itemRequest -> { }));
+        Mockito.verify(itemRequestRepository, Mockito.never()).streamByRequesterIdNot(anyLong());
+    }
 
     @Test
     void getItemRequestById_whenRequesterAndRequestFound_thenReturnCollectionOfItemRequests() {
         ItemRequestDto templateRequest = ItemRequestMapper.toItemRequestDto(request, List.of(item1));
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(requester));
         Mockito
                 .when(itemRequestRepository.findById(eq(request.getId())))
@@ -194,7 +323,7 @@ class ItemRequestServiceImplTest {
     @Test
     void getItemRequestById_whenRequesterNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -206,7 +335,7 @@ class ItemRequestServiceImplTest {
     @Test
     void getItemRequestById_whenRequestNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(anyLong()))
+                .when(userRepository.findCachedById(anyLong()))
                 .thenReturn(Optional.of(requester));
         Mockito
                 .when(itemRequestRepository.findById(anyLong()))
@@ -215,4 +344,44 @@ class ItemRequestServiceImplTest {
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getItemRequestById(requester.getId(), request.getId()));
     }
+
+    @Test
+    void getItemRequestEtag_whenRequestFound_thenEtagWithItemsVersions() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        ItemRequestRevisionView requestRevision = itemRequestRevisionView(1L, request.getId(), 2L, 8L, 3L);
+        Mockito
+                .when(itemRequestRepository.findRevisionById(eq(request.getId())))
+                .thenReturn(requestRevision);
+
+        String etag = itemRequestService.getItemRequestEtag(requester.getId(), request.getId());
+
+        assertEquals("request-" + request.getId() + "-1." + request.getId() + "-i2.8.3", etag);
+    }
+
+    @Test
+    void getItemRequestEtag_whenRequestNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(userRepository.findCachedById(anyLong()))
+                .thenReturn(Optional.of(requester));
+        ItemRequestRevisionView requestRevision = itemRequestRevisionView(0L, 0L, 0L, 0L, 0L);
+        Mockito
+                .when(itemRequestRepository.findRevisionById(anyLong()))
+                .thenReturn(requestRevision);
+
+        assertThrows(NotFoundException.class,
+                () -> itemRequestService.getItemRequestEtag(requester.getId(), request.getId()));
+    }
+
+    private static ItemRequestRevisionView itemRequestRevisionView(Long count, Long lastId, Long itemsCount,
+                                                                   Long lastItemId, Long itemsVersion) {
+        ItemRequestRevisionView view = Mockito.mock(ItemRequestRevisionView.class);
+        Mockito.lenient().when(view.getCount()).thenReturn(count);
+        Mockito.lenient().when(view.getLastId()).thenReturn(lastId);
+        Mockito.lenient().when(view.getItemsCount()).thenReturn(itemsCount);
+        Mockito.lenient().when(view.getLastItemId()).thenReturn(lastItemId);
+        Mockito.lenient().when(view.getItemsVersion()).thenReturn(itemsVersion);
+        return view;
+    }
 }
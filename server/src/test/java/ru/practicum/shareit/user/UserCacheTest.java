@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserCacheTest {
+    private User user;
+    private Cache usersCache;
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    UserService userService;
+    @Autowired
+    CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .id(null)
+                .name("CachedName")
+                .email(UUID.randomUUID() + "@Email123.net")
+                .build());
+        usersCache = cacheManager.getCache(UserCacheConfig.USERS_CACHE);
+    }
+
+    @Test
+    void findCachedById_whenCalledTwice_thenSecondCallServedFromCache() {
+        userRepository.findCachedById(user.getId());
+        // удаление мимо UserService не затрагивает кэш
+        userRepository.deleteById(user.getId());
+
+        User cachedUser = userRepository.findCachedById(user.getId()).orElseThrow();
+
+        assertEquals("CachedName", cachedUser.getName());
+        assertNotNull(usersCache.get(user.getId()));
+        usersCache.evict(user.getId());
+    }
+
+    @Test
+    void findCachedById_whenUserNotFound_thenNotCached() {
+        assertTrue(userRepository.findCachedById(-1L).isEmpty());
+        assertNull(usersCache.get(-1L));
+    }
+
+    @Test
+    void updateUser_whenUserCached_thenEvictEntry() {
+        userRepository.findCachedById(user.getId());
+
+        userService.updateUser(user.getId(), UserUpdateDto.builder().name("UpdatedName").build());
+
+        assertNull(usersCache.get(user.getId()));
+        assertEquals("UpdatedName", userRepository.findCachedById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void removeUserById_whenUserCached_thenEvictEntry() {
+        userRepository.findCachedById(user.getId());
+
+        userService.removeUserById(user.getId());
+
+        assertNull(usersCache.get(user.getId()));
+        assertTrue(userRepository.findCachedById(user.getId()).isEmpty());
+    }
+}
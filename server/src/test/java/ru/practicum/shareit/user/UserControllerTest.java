@@ -20,6 +20,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,6 +69,32 @@ class UserControllerTest {
         Mockito.verify(userService, Mockito.times(1)).addUser(any(UserCreateDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    void addUsersTest() {
+        List<UserCreateDto> userCreateDtos = List.of(
+                UserCreateDto.builder().name("UserName1").email("User1Email@Email123.net").build(),
+                UserCreateDto.builder().name("UserName2").email("User2Email@Email123.net").build());
+        List<UserFullDto> userFullDtos = List.of(
+                UserFullDto.builder().id(1L).name("UserName1").email("User1Email@Email123.net").build(),
+                UserFullDto.builder().id(2L).name("UserName2").email("User2Email@Email123.net").build());
+
+        Mockito
+                .when(userService.addUsers(Mockito.anyList()))
+                .thenReturn(userFullDtos);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/users/batch")
+                        .content(objectMapper.writeValueAsString(userCreateDtos))
+                        .contentType("application/json; charset=UTF-8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(2L))
+                .andExpect(jsonPath("$[1].email").value("User2Email@Email123.net"));
+
+        Mockito.verify(userService, Mockito.times(1)).addUsers(Mockito.anyList());
+    }
+
     @SneakyThrows
     @Test
     void updateUserTest() {
@@ -138,6 +165,23 @@ class UserControllerTest {
         Mockito.verify(userService, Mockito.times(1)).getUserById(anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getUserById_whenEtagMatches_thenNotModified() {
+        Long userId = 1L;
+        Mockito
+                .when(userService.getUserEtag(userId))
+                .thenReturn("user-1-0");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", userId)
+                        .header("If-None-Match", "\"user-1-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"user-1-0\""));
+
+        Mockito.verify(userService, Mockito.never()).getUserById(anyLong());
+    }
+
     @SneakyThrows
     @Test
     void getAllUsersTest() {
@@ -167,4 +211,33 @@ class UserControllerTest {
                 result.getResponse().getContentAsString());
         Mockito.verify(userService, Mockito.times(1)).getAllUsers();
     }
+
+    @SneakyThrows
+    @Test
+    void getUsersByIdsTest() {
+        UserFullDto userDto1 = UserFullDto.builder()
+                .id(1L)
+                .name("User1Name")
+                .email("User1Email@Email123.net")
+                .build();
+        UserFullDto userDto2 = UserFullDto.builder()
+                .id(2L)
+                .name("User2Name")
+                .email("User2Email@Email123.net")
+                .build();
+
+        Mockito
+                .when(userService.getUsersByIds(List.of(2L, 1L)))
+                .thenReturn(List.of(userDto2, userDto1));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/users")
+                        .param("ids", "2,1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(userDto2, userDto1)),
+                result.getResponse().getContentAsString());
+        Mockito.verify(userService, Mockito.never()).getAllUsers();
+    }
 }
@@ -55,6 +55,36 @@ class UserServiceImplTest {
 
     }
 
+    @Test
+    void addUsersTest() {
+        List<UserCreateDto> userCreateDtos = List.of(
+                UserCreateDto.builder()
+                        .name("UserName1")
+                        .email("User1Email@Email123.net")
+                        .build(),
+                UserCreateDto.builder()
+                        .name("UserName2")
+                        .email("User2Email@Email123.net")
+                        .build());
+        Mockito
+                .when(userRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<User> users = invocation.getArgument(0);
+                    for (int i = 0; i < users.size(); i++) {
+                        users.get(i).setId(i + 1L);
+                    }
+                    return users;
+                });
+
+        List<UserFullDto> createdUsers = new ArrayList<>(userService.addUsers(userCreateDtos));
+
+        assertEquals(2, createdUsers.size());
+        assertEquals("UserName1", createdUsers.get(0).getName());
+        assertEquals("User2Email@Email123.net", createdUsers.get(1).getEmail());
+        Mockito.verify(userRepository, Mockito.times(1)).saveAll(anyList());
+        Mockito.verify(userRepository, Mockito.never()).save(any(User.class));
+    }
+
     @Test
     void updateUser_whenUpdateParamsIsPresentAndUserFound_thenUpdateAndReturnUpdatedUser() {
         UserUpdateDto userUpdateDto = UserUpdateDto.builder()
@@ -165,7 +195,7 @@ class UserServiceImplTest {
     @Test
     void getUserById_whenUserFound_thenReturnUser() {
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.of(user1));
 
         UserFullDto findUser = userService.getUserById(user1.getId());
@@ -173,19 +203,71 @@ class UserServiceImplTest {
         assertEquals(findUser.getId(), user1.getId());
         assertEquals(findUser.getName(), user1.getName());
         assertEquals(findUser.getEmail(), user1.getEmail());
-        Mockito.verify(userRepository, Mockito.times(1)).findById(user1.getId());
+        Mockito.verify(userRepository, Mockito.times(1)).findCachedById(user1.getId());
     }
 
     @Test
     void getUserById_whenUserNotFound_thenThrowNotFoundException() {
         Mockito
-                .when(userRepository.findById(eq(user1.getId())))
+                .when(userRepository.findCachedById(eq(user1.getId())))
                 .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> userService.getUserById(user1.getId()));
     }
 
+    @Test
+    void getUsersByIds_whenUsersFound_thenReturnUsersInRequestedOrder() {
+        User user2 = User.builder()
+                .id(2L)
+                .name("User2Name")
+                .email("User2Email@Email123.net")
+                .build();
+        Mockito
+                .when(userRepository.findAllById(eq(List.of(user2.getId(), user1.getId()))))
+                .thenReturn(List.of(user1, user2));
+
+        List<UserFullDto> users = new ArrayList<>(userService.getUsersByIds(
+                List.of(user2.getId(), user1.getId(), user2.getId())));
+
+        assertEquals(2, users.size());
+        assertEquals(user2.getId(), users.get(0).getId());
+        assertEquals(user1.getId(), users.get(1).getId());
+        Mockito.verify(userRepository, Mockito.never()).findCachedById(anyLong());
+    }
+
+    @Test
+    void getUsersByIds_whenSomeUsersNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(userRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(user1));
+
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> userService.getUsersByIds(List.of(user1.getId(), 7L)));
+
+        assertTrue(e.getMessage().contains("[7]"));
+    }
+
+    @Test
+    void getUserEtag_whenUserFound_thenEtagWithVersion() {
+        user1.setVersion(2L);
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.of(user1));
+
+        assertEquals("user-" + user1.getId() + "-2", userService.getUserEtag(user1.getId()));
+    }
+
+    @Test
+    void getUserEtag_whenUserNotFound_thenThrowNotFoundException() {
+        Mockito
+                .when(userRepository.findCachedById(eq(user1.getId())))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> userService.getUserEtag(user1.getId()));
+    }
+
     @Test
     void getAllUsers() {
         User user2 = User.builder()